@@ -0,0 +1,92 @@
+package com.demo.entrymanager;
+
+import com.demo.entrymanager.model.Accountant;
+import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.repository.AccountantRepository;
+import com.demo.entrymanager.repository.JournalEntryRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without the web layer on a private in-memory H2 database and seeds it
+ * with a deterministic spread of journal entries, so every benchmark run sees the same data.
+ */
+public final class BenchmarkDatabase {
+    public static final LocalDateTime FIRST_DRAFTED_DATE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    public static final int DRAFTED_DAYS = 365;
+
+    private static final Status[] SEEDED_STATUSES = Status.values();
+
+    private BenchmarkDatabase(){};
+
+    public static ConfigurableApplicationContext start() {
+        return start(WebApplicationType.NONE);
+    }
+
+    public static ConfigurableApplicationContext start(final WebApplicationType webApplicationType, final String... properties) {
+        return new SpringApplicationBuilder(EntrymanagerApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    public static List<Accountant> seedAccountants(final ConfigurableApplicationContext context, final int count) {
+        final List<Accountant> accountants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accountants.add(new Accountant(null, "Accountant " + i));
+        }
+        return context.getBean(AccountantRepository.class).saveAll(accountants);
+    }
+
+    /**
+     * Seeds {@code count} entries cycling through every status, with the drafted dates spread
+     * evenly over {@link #DRAFTED_DAYS} days and the accountants assigned round-robin.
+     */
+    public static List<JournalEntry> seedJournalEntries(final ConfigurableApplicationContext context,
+                                                        final List<Accountant> accountants, final int count) {
+        final long secondsBetweenDrafts = DRAFTED_DAYS * 86_400L / count;
+        final List<JournalEntry> journalEntries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            journalEntries.add(journalEntry(SEEDED_STATUSES[i % SEEDED_STATUSES.length],
+                    accountants.get(i % accountants.size()),
+                    FIRST_DRAFTED_DATE.plusSeconds(i * secondsBetweenDrafts)));
+        }
+        return saveJournalEntries(context, journalEntries);
+    }
+
+    public static List<JournalEntry> saveJournalEntries(final ConfigurableApplicationContext context,
+                                                        final List<JournalEntry> journalEntries) {
+        return context.getBean(JournalEntryRepository.class).saveAllInBatches(journalEntries);
+    }
+
+    /**
+     * Builds an unsaved entry that satisfies the preconditions of the transition out of {@code status}.
+     */
+    public static JournalEntry journalEntry(final Status status, final Accountant accountant, final LocalDateTime draftedDate) {
+        final JournalEntry journalEntry = new JournalEntry(null, "Benchmark scenario drafted on " + draftedDate, status, draftedDate);
+        if (status != Status.DRAFT) {
+            journalEntry.setAssignedAccountant(accountant);
+            journalEntry.setReviewNotes("Benchmark review notes");
+        }
+        if (status == Status.REVIEWED || status == Status.APPROVED) {
+            journalEntry.setReviewedDate(draftedDate.plusDays(1));
+            journalEntry.setApproveNotes("Benchmark approve notes");
+        }
+        if (status == Status.APPROVED) {
+            journalEntry.setApprovedDate(draftedDate.plusDays(2));
+        }
+        return journalEntry;
+    }
+}
@@ -0,0 +1,111 @@
+package com.demo.entrymanager.controller;
+
+import com.demo.entrymanager.BenchmarkDatabase;
+import com.demo.entrymanager.model.Accountant;
+import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the HTTP API with more concurrent clients than Tomcat has platform worker threads, once with
+ * virtual threads and once without. Throughput mode gives requests per millisecond, sample mode the
+ * latency distribution including p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+public class JournalEntryLoadBenchmark {
+    private static final int IN_REVIEW_ROW_COUNT = 1_000;
+    private static final int BACKGROUND_ROW_COUNT = 10_000;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String journalEntriesUri;
+    private List<Long> inReviewJournalEntryIds;
+    private final AtomicInteger nextClient = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Client {
+        private Long journalEntryId;
+        private int revision;
+
+        @Setup(Level.Trial)
+        public void pickJournalEntry(final JournalEntryLoadBenchmark benchmark) {
+            // one entry per client, so the concurrent patches do not fail on each other's version
+            journalEntryId = benchmark.inReviewJournalEntryIds.get(
+                    benchmark.nextClient.getAndIncrement() % benchmark.inReviewJournalEntryIds.size());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(WebApplicationType.SERVLET,
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads);
+        final List<Accountant> accountants = BenchmarkDatabase.seedAccountants(context, 10);
+        BenchmarkDatabase.seedJournalEntries(context, accountants, BACKGROUND_ROW_COUNT);
+
+        final LocalDateTime draftedDate = LocalDateTime.now();
+        final List<JournalEntry> inReviewJournalEntries = new ArrayList<>(IN_REVIEW_ROW_COUNT);
+        for (int i = 0; i < IN_REVIEW_ROW_COUNT; i++) {
+            inReviewJournalEntries.add(BenchmarkDatabase.journalEntry(Status.IN_REVIEW, accountants.get(0), draftedDate));
+        }
+        inReviewJournalEntryIds = BenchmarkDatabase.saveJournalEntries(context, inReviewJournalEntries).stream()
+                .map(JournalEntry::getId)
+                .toList();
+
+        journalEntriesUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/journalentries";
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getJournalEntriesPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(journalEntriesUri + "?status=IN_REVIEW&pageSize=50"))
+                .GET()
+                .build());
+    }
+
+    @Benchmark
+    public int patchReviewNotes(final Client client) throws IOException, InterruptedException {
+        final String body = "{\"reviewNotes\":\"Load test review notes " + client.revision++ + "\"}";
+        return send(HttpRequest.newBuilder(URI.create(journalEntriesUri + "/" + client.journalEntryId))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private int send(final HttpRequest request) throws IOException, InterruptedException {
+        final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + request.uri());
+        }
+        return response.statusCode();
+    }
+}
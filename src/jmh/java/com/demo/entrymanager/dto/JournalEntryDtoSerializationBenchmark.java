@@ -0,0 +1,50 @@
+package com.demo.entrymanager.dto;
+
+import com.demo.entrymanager.model.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JournalEntryDtoSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    // configured the same way as the ObjectMapper Spring Boot hands to the message converters
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<JournalEntryDto> journalEntryDtos;
+    private JournalEntryPageDto journalEntryPageDto;
+
+    @Setup
+    public void setUp() {
+        final Status[] statuses = Status.values();
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+        journalEntryDtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            journalEntryDtos.add(new JournalEntryDto((long) i, "Benchmark scenario " + i, statuses[i % statuses.length],
+                    draftedDate.plusMinutes(i), draftedDate.plusDays(1), null, "Accountant " + (i % 10),
+                    "Benchmark review notes", null, 0L));
+        }
+        journalEntryPageDto = new JournalEntryPageDto(journalEntryDtos, "MjAyNS0wMS0wMVQwMDowMHwxMDA");
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(journalEntryDtos);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(journalEntryPageDto);
+    }
+}
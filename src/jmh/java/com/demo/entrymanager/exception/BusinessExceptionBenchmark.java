@@ -0,0 +1,49 @@
+package com.demo.entrymanager.exception;
+
+import com.demo.entrymanager.util.ErrorMessages;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rejecting a request by throwing: a business exception, which skips the stack trace, against a plain
+ * RuntimeException, which captures it. The depth is the number of frames between the throw and the catch; a
+ * request rejected in the service is thrown about 100 frames below the servlet container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BusinessExceptionBenchmark {
+    @Param({"10", "100"})
+    private int depth;
+
+    @Benchmark
+    public String throwBusinessException() {
+        try {
+            return throwAt(depth, true);
+        } catch (InvalidJournalEntryStateException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String throwStackTraceException() {
+        try {
+            return throwAt(depth, false);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String throwAt(final int depth, final boolean business) {
+        if (depth > 0) {
+            return throwAt(depth - 1, business);
+        }
+        if (business) {
+            throw new InvalidJournalEntryStateException(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_REVIEWED_CAN_BE_APPROVED);
+        }
+        throw new RuntimeException(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_REVIEWED_CAN_BE_APPROVED);
+    }
+}
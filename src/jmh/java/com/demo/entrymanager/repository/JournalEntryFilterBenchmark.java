@@ -0,0 +1,75 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.BenchmarkDatabase;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.model.Accountant;
+import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JournalEntryFilterBenchmark {
+    private static final int ACCOUNTANT_COUNT = 10;
+    private static final int PAGE_SIZE = 50;
+
+    public enum Predicates {
+        NONE, STATUS, DATE_RANGE, ACCOUNTANT, ALL
+    }
+
+    @Param({"1000", "10000"})
+    private int rowCount;
+
+    @Param
+    private Predicates predicates;
+
+    private ConfigurableApplicationContext context;
+    private JournalEntryRepository journalEntryRepository;
+
+    private List<Status> statuses;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String assignedAccountant;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        journalEntryRepository = context.getBean(JournalEntryRepository.class);
+        final List<Accountant> accountants = BenchmarkDatabase.seedAccountants(context, ACCOUNTANT_COUNT);
+        BenchmarkDatabase.seedJournalEntries(context, accountants, rowCount);
+
+        final boolean all = predicates == Predicates.ALL;
+        statuses = all || predicates == Predicates.STATUS ? List.of(Status.IN_REVIEW, Status.REVIEWED) : null;
+        startDate = all || predicates == Predicates.DATE_RANGE ? BenchmarkDatabase.FIRST_DRAFTED_DATE : null;
+        endDate = all || predicates == Predicates.DATE_RANGE ? BenchmarkDatabase.FIRST_DRAFTED_DATE.plusDays(90) : null;
+        assignedAccountant = all || predicates == Predicates.ACCOUNTANT ? accountants.get(0).getName() : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<JournalEntry> findWithFilters() {
+        return journalEntryRepository.findWithFilters(statuses, startDate, endDate, assignedAccountant);
+    }
+
+    @Benchmark
+    public List<JournalEntry> findWithFiltersFirstPage() {
+        return journalEntryRepository.findWithFilters(statuses, startDate, endDate, assignedAccountant, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<JournalEntryDto> findDtosWithFiltersFirstPage() {
+        return journalEntryRepository.findDtosWithFilters(statuses, startDate, endDate, assignedAccountant, null, PAGE_SIZE);
+    }
+}
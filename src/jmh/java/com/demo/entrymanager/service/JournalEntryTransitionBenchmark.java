@@ -0,0 +1,90 @@
+package com.demo.entrymanager.service;
+
+import com.demo.entrymanager.BenchmarkDatabase;
+import com.demo.entrymanager.model.Accountant;
+import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the workflow transitions through the service, one entry at a time and in batches.
+ * Every invocation gets freshly seeded entries in the source state of the transition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JournalEntryTransitionBenchmark {
+    private static final int BACKGROUND_ROW_COUNT = 10_000;
+
+    public enum Transition {
+        ASSIGN(Status.DRAFT), REVIEW(Status.IN_REVIEW), APPROVE(Status.REVIEWED);
+
+        private final Status sourceStatus;
+
+        Transition(final Status sourceStatus) {
+            this.sourceStatus = sourceStatus;
+        }
+    }
+
+    @Param
+    private Transition transition;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private JournalEntryService journalEntryService;
+    private Accountant accountant;
+    private List<Long> journalEntryIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        journalEntryService = context.getBean(JournalEntryService.class);
+        final List<Accountant> accountants = BenchmarkDatabase.seedAccountants(context, 10);
+        BenchmarkDatabase.seedJournalEntries(context, accountants, BACKGROUND_ROW_COUNT);
+        accountant = accountants.get(0);
+    }
+
+    @Setup(Level.Invocation)
+    public void seedSourceEntries() {
+        final LocalDateTime draftedDate = LocalDateTime.now();
+        final List<JournalEntry> journalEntries = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            journalEntries.add(BenchmarkDatabase.journalEntry(transition.sourceStatus, accountant, draftedDate));
+        }
+        journalEntryIds = BenchmarkDatabase.saveJournalEntries(context, journalEntries).stream()
+                .map(JournalEntry::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object transition() {
+        if (batchSize == 1) {
+            final Long journalEntryId = journalEntryIds.get(0);
+            return switch (transition) {
+                case ASSIGN -> journalEntryService.assignAccountantToJournalEntry(journalEntryId, accountant.getId());
+                case REVIEW -> journalEntryService.reviewJournalEntry(journalEntryId);
+                case APPROVE -> journalEntryService.approveJournalEntry(journalEntryId);
+            };
+        }
+        return switch (transition) {
+            case ASSIGN -> journalEntryService.assignAccountantToJournalEntries(journalEntryIds, accountant.getId());
+            case REVIEW -> journalEntryService.reviewJournalEntries(journalEntryIds);
+            case APPROVE -> journalEntryService.approveJournalEntries(journalEntryIds);
+        };
+    }
+}
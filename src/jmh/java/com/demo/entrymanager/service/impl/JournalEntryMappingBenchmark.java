@@ -0,0 +1,45 @@
+package com.demo.entrymanager.service.impl;
+
+import com.demo.entrymanager.BenchmarkDatabase;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.model.Accountant;
+import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JournalEntryMappingBenchmark {
+    private JournalEntryServiceImpl journalEntryService;
+    private JournalEntry draftJournalEntry;
+    private JournalEntry approvedJournalEntry;
+
+    @Setup
+    public void setUp() {
+        // the mapping does not touch the repositories
+        journalEntryService = new JournalEntryServiceImpl(null, null, null,
+                new ConcurrentMapCacheManager(JournalEntryServiceImpl.JOURNAL_ENTRY_CACHE), null, null, null, null);
+        final Accountant accountant = new Accountant(1L, "Accountant 1");
+        draftJournalEntry = BenchmarkDatabase.journalEntry(Status.DRAFT, accountant, BenchmarkDatabase.FIRST_DRAFTED_DATE);
+        draftJournalEntry.setId(1L);
+        approvedJournalEntry = BenchmarkDatabase.journalEntry(Status.APPROVED, accountant, BenchmarkDatabase.FIRST_DRAFTED_DATE);
+        approvedJournalEntry.setId(2L);
+        approvedJournalEntry.setVersion(3L);
+    }
+
+    @Benchmark
+    public JournalEntryDto toJournalEntryDtoDraft() {
+        return journalEntryService.toJournalEntryDto(draftJournalEntry);
+    }
+
+    @Benchmark
+    public JournalEntryDto toJournalEntryDtoApproved() {
+        return journalEntryService.toJournalEntryDto(approvedJournalEntry);
+    }
+}
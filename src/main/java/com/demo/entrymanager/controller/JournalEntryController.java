@@ -1,13 +1,35 @@
 package com.demo.entrymanager.controller;
 
+import com.demo.entrymanager.dto.JournalEntryBatchResultDto;
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
 import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryPageDto;
+import com.demo.entrymanager.dto.JournalEntryPatchDto;
+import com.demo.entrymanager.dto.JournalEntryReservationDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
+import com.demo.entrymanager.ingest.IngestCommand;
+import com.demo.entrymanager.ingest.JournalEntryIngestQueue;
+import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.repository.DateBucket;
+import com.demo.entrymanager.service.ExportFormat;
 import com.demo.entrymanager.service.JournalEntryService;
+import com.demo.entrymanager.service.JournalEntryUpdateHub;
+import com.demo.entrymanager.util.ETags;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/journalentries")
@@ -15,6 +37,12 @@ public class JournalEntryController {
     @Autowired
     private JournalEntryService journalEntryService;
 
+    @Autowired
+    private JournalEntryUpdateHub journalEntryUpdateHub;
+
+    @Autowired
+    private JournalEntryIngestQueue journalEntryIngestQueue;
+
     @PostMapping
     public ResponseEntity<JournalEntryDto> createJournalEntry(@RequestBody final JournalEntryDto journalEntryDto){
 
@@ -23,40 +51,167 @@ public class JournalEntryController {
         return new ResponseEntity<>(createdJournalEntryDto, HttpStatus.CREATED);
     }
 
+    @PostMapping("/async")
+    public ResponseEntity<JournalEntryReservationDto> reserveJournalEntry(@RequestBody final JournalEntryDto journalEntryDto){
+
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.submitDraft(journalEntryDto);
+
+        return new ResponseEntity<>(reservationDto, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<JournalEntryReservationDto> getReservation(@PathVariable final UUID reservationId) {
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.getReservation(reservationId);
+        return new ResponseEntity<>(reservationDto, HttpStatus.OK);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<JournalEntryBatchResultDto> createJournalEntries(@RequestBody final List<JournalEntryDto> journalEntryDtos){
+
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.createJournalEntries(journalEntryDtos);
+
+        return new ResponseEntity<>(batchResultDto, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}/accountant/{accountantId}")
     public ResponseEntity<JournalEntryDto> assignAccountant(@PathVariable final Long id, @PathVariable final Long accountantId) {
         final JournalEntryDto journalEntryDto = journalEntryService.assignAccountantToJournalEntry(id, accountantId);
         return new ResponseEntity<>(journalEntryDto, HttpStatus.OK);
     }
 
+    @PutMapping("/async/{id}/accountant/{accountantId}")
+    public ResponseEntity<JournalEntryReservationDto> reserveAccountantAssignment(@PathVariable final Long id, @PathVariable final Long accountantId) {
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.ASSIGN_ACCOUNTANT, id, accountantId);
+        return new ResponseEntity<>(reservationDto, HttpStatus.ACCEPTED);
+    }
+
+    @PutMapping("/async/{id}/review")
+    public ResponseEntity<JournalEntryReservationDto> reserveReview(@PathVariable final Long id) {
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.REVIEW, id, null);
+        return new ResponseEntity<>(reservationDto, HttpStatus.ACCEPTED);
+    }
+
+    @PutMapping("/async/{id}/approve")
+    public ResponseEntity<JournalEntryReservationDto> reserveApproval(@PathVariable final Long id) {
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.APPROVE, id, null);
+        return new ResponseEntity<>(reservationDto, HttpStatus.ACCEPTED);
+    }
+
     @PutMapping("/{id}/review")
     public ResponseEntity<JournalEntryDto> reviewJournalEntry(@PathVariable final Long id) {
         final JournalEntryDto journalEntryDto = journalEntryService.reviewJournalEntry(id);
         return new ResponseEntity<>(journalEntryDto, HttpStatus.OK);
     }
 
+    @GetMapping(path = "/{id}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToJournalEntryUpdates(@PathVariable final Long id) {
+        return journalEntryUpdateHub.subscribe(id, () -> journalEntryService.getJournalEntryById(id));
+    }
+
     @PutMapping("/{id}/approve")
     public ResponseEntity<JournalEntryDto> approveJournalEntry(@PathVariable final Long id) {
         final JournalEntryDto journalEntryDto = journalEntryService.approveJournalEntry(id);
         return new ResponseEntity<>(journalEntryDto, HttpStatus.OK);
     }
 
+    @PutMapping("/batch/accountant/{accountantId}")
+    public ResponseEntity<JournalEntryBatchResultDto> assignAccountantToJournalEntries(@PathVariable final Long accountantId, @RequestBody final List<Long> ids) {
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.assignAccountantToJournalEntries(ids, accountantId);
+        return new ResponseEntity<>(batchResultDto, HttpStatus.OK);
+    }
+
+    @PutMapping("/batch/review")
+    public ResponseEntity<JournalEntryBatchResultDto> reviewJournalEntries(@RequestBody final List<Long> ids) {
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.reviewJournalEntries(ids);
+        return new ResponseEntity<>(batchResultDto, HttpStatus.OK);
+    }
+
+    @PutMapping("/batch/approve")
+    public ResponseEntity<JournalEntryBatchResultDto> approveJournalEntries(@RequestBody final List<Long> ids) {
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.approveJournalEntries(ids);
+        return new ResponseEntity<>(batchResultDto, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<JournalEntryDto> updateJournalEntry(@PathVariable final Long id, @RequestBody final JournalEntryDto journalEntryDto) {
-        final JournalEntryDto updatedJournalEntryDto = journalEntryService.updateJournalEntry(id, journalEntryDto);
-        return new ResponseEntity<>(updatedJournalEntryDto, HttpStatus.OK);
+    public ResponseEntity<JournalEntryDto> updateJournalEntry(@PathVariable final Long id, @RequestBody final JournalEntryDto journalEntryDto,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+        final JournalEntryDto expectedJournalEntryDto = ifMatch != null ? journalEntryDto.withVersion(ETags.versionOf(ifMatch)) : journalEntryDto;
+        final JournalEntryDto updatedJournalEntryDto = journalEntryService.updateJournalEntry(id, expectedJournalEntryDto);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updatedJournalEntryDto.version()))
+                .body(updatedJournalEntryDto);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<JournalEntryDto> patchJournalEntry(@PathVariable final Long id, @RequestBody final JournalEntryPatchDto journalEntryPatchDto,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+        final JournalEntryPatchDto expectedJournalEntryPatchDto = ifMatch != null ? journalEntryPatchDto.withVersion(ETags.versionOf(ifMatch)) : journalEntryPatchDto;
+        final JournalEntryDto patchedJournalEntryDto = journalEntryService.patchJournalEntry(id, expectedJournalEntryPatchDto);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(patchedJournalEntryDto.version()))
+                .body(patchedJournalEntryDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<JournalEntryDto> getJournalEntry(@PathVariable final Long id) {
+    public ResponseEntity<JournalEntryDto> getJournalEntry(@PathVariable final Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
         final JournalEntryDto journalEntryDto = journalEntryService.getJournalEntryById(id);
-        return new ResponseEntity<>(journalEntryDto, HttpStatus.OK);
+        final String eTag = ETags.of(journalEntryDto.version());
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(journalEntryDto);
     }
 
     @GetMapping
-    public ResponseEntity<List<JournalEntryDto>> getJournalEntries(final FilterJournalEntryDto filterJournalEntryDto) {
-        final List<JournalEntryDto> filteredJournalEntries = journalEntryService.getJournalEntries(filterJournalEntryDto);
+    public ResponseEntity<JournalEntryPageDto> getJournalEntries(final FilterJournalEntryDto filterJournalEntryDto,
+                                                                 @RequestParam(required = false) final String pageToken,
+                                                                 @RequestParam(required = false) final Integer pageSize) {
+        final JournalEntryPageDto filteredJournalEntries = journalEntryService.getJournalEntries(filterJournalEntryDto, pageToken, pageSize);
         return new ResponseEntity<>(filteredJournalEntries, HttpStatus.OK);
     }
 
+    @GetMapping("/export")
+    public void exportJournalEntries(final FilterJournalEntryDto filterJournalEntryDto,
+                                     @RequestParam(defaultValue = "NDJSON") final ExportFormat format,
+                                     final HttpServletResponse response) throws IOException {
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("journalentries." + format.getFileExtension()).build().toString());
+        journalEntryService.exportJournalEntries(filterJournalEntryDto, format, response.getOutputStream());
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<Long> countJournalEntries(@RequestParam final Status status,
+                                                    @RequestParam(required = false) final Long accountantId) {
+        final long journalEntryCount = journalEntryService.countJournalEntries(status, accountantId);
+        return new ResponseEntity<>(journalEntryCount, HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<JournalEntryChangesDto> getJournalEntryChanges(@RequestParam(required = false) final Long since,
+                                                                         @RequestParam(required = false) final Integer limit,
+                                                                         @RequestParam(required = false) final Integer waitSeconds) {
+        final JournalEntryChangesDto journalEntryChanges = journalEntryService.getJournalEntryChanges(since, limit, waitSeconds);
+        return new ResponseEntity<>(journalEntryChanges, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<JournalEntryStatsDto> getJournalEntryStats(final FilterJournalEntryDto filterJournalEntryDto,
+                                                                     @RequestParam(required = false) final DateBucket bucket) {
+        final JournalEntryStatsDto journalEntryStats = journalEntryService.getJournalEntryStats(filterJournalEntryDto, bucket);
+        return new ResponseEntity<>(journalEntryStats, HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<JournalEntrySearchPageDto> searchJournalEntries(@RequestParam(name = "q", required = false) final String text,
+                                                                          @RequestParam(required = false) final Integer page,
+                                                                          @RequestParam(required = false) final Integer pageSize) {
+        final JournalEntrySearchPageDto searchResults = journalEntryService.searchJournalEntries(text, page, pageSize);
+        return new ResponseEntity<>(searchResults, HttpStatus.OK);
+    }
+
 }
@@ -1,47 +1,35 @@
 package com.demo.entrymanager.controller.exception;
 
-import com.demo.entrymanager.exception.*;
-import org.springframework.http.HttpStatus;
+import com.demo.entrymanager.dto.ErrorDto;
+import com.demo.entrymanager.exception.BusinessException;
+import com.demo.entrymanager.exception.ErrorCode;
+import com.demo.entrymanager.util.ErrorMessages;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
 public class ControllerExceptionHandler {
 
-    @ExceptionHandler(MissingScenarioException.class)
-    public ResponseEntity<String> handleMissingScenarioException(MissingScenarioException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    // every business rejection carries its error code, which also decides the response status
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ErrorDto> handleBusinessException(BusinessException e){
+        return toResponse(e.getErrorCode(), e.getMessage());
     }
 
-    @ExceptionHandler(InvalidDateRangeException.class)
-    public ResponseEntity<String> handleInvalidDateRangeException(InvalidDateRangeException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDto> handleObjectOptimisticLockingFailureException(ObjectOptimisticLockingFailureException e){
+        return toResponse(ErrorCode.JOURNAL_ENTRY_VERSION_MISMATCH, ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH);
     }
 
-    @ExceptionHandler(JournalEntryMissingApproveNotesException.class)
-    public ResponseEntity<String> handleJournalEntryMissingApproveNotesException(JournalEntryMissingApproveNotesException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(JournalEntryMissingReviewNotesException.class)
-    public ResponseEntity<String> handleJournalEntryMissingReviewNotesException(JournalEntryMissingReviewNotesException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(JournalEntryNotFoundException.class)
-    public ResponseEntity<String> handleJournalEntryNotFoundException(JournalEntryNotFoundException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(InvalidJournalEntryStateException.class)
-    public ResponseEntity<String> handleInvalidJournalEntryState(InvalidJournalEntryStateException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(AccountantNotFoundException.class)
-    public ResponseEntity<String> handleAccountantNotFoundException(AccountantNotFoundException e){
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    // the JSON content type is set up front: a rejected /updates subscription only accepts text/event-stream, and
+    // content negotiation alone would find no way to write the error for it
+    private ResponseEntity<ErrorDto> toResponse(final ErrorCode errorCode, final String message){
+        return ResponseEntity.status(errorCode.getHttpStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorDto(errorCode, message));
     }
 
 }
@@ -0,0 +1,8 @@
+package com.demo.entrymanager.dto;
+
+public record AccountantCountDto(
+        Long id,
+        String name,
+        long count
+) {
+}
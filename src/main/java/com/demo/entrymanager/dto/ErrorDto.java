@@ -0,0 +1,9 @@
+package com.demo.entrymanager.dto;
+
+import com.demo.entrymanager.exception.ErrorCode;
+
+public record ErrorDto(
+        ErrorCode code,
+        String message
+) {
+}
@@ -0,0 +1,20 @@
+package com.demo.entrymanager.dto;
+
+import com.demo.entrymanager.exception.ErrorCode;
+
+public record JournalEntryBatchItemDto(
+        int index,
+        Long id,
+        boolean accepted,
+        JournalEntryDto journalEntry,
+        ErrorCode errorCode,
+        String error
+) {
+    public static JournalEntryBatchItemDto ofAccepted(final int index, final JournalEntryDto journalEntryDto) {
+        return new JournalEntryBatchItemDto(index, journalEntryDto.id(), true, journalEntryDto, null, null);
+    }
+
+    public static JournalEntryBatchItemDto ofRejected(final int index, final Long id, final ErrorCode errorCode, final String error) {
+        return new JournalEntryBatchItemDto(index, id, false, null, errorCode, error);
+    }
+}
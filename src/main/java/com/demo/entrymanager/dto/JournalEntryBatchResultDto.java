@@ -0,0 +1,14 @@
+package com.demo.entrymanager.dto;
+
+import java.util.List;
+
+public record JournalEntryBatchResultDto(
+        int accepted,
+        int rejected,
+        List<JournalEntryBatchItemDto> items
+) {
+    public static JournalEntryBatchResultDto of(final List<JournalEntryBatchItemDto> items) {
+        final int accepted = (int) items.stream().filter(JournalEntryBatchItemDto::accepted).count();
+        return new JournalEntryBatchResultDto(accepted, items.size() - accepted, items);
+    }
+}
@@ -0,0 +1,9 @@
+package com.demo.entrymanager.dto;
+
+import java.util.List;
+
+public record JournalEntryChangesDto(
+        List<JournalEntryEventDto> events,
+        long cursor
+) {
+}
@@ -13,6 +13,15 @@ public record JournalEntryDto(
         LocalDateTime approvedDate,
         String assignedAccountant,
         String reviewNotes,
-        String approveNotes
+        String approveNotes,
+        Long version
 ) {
+    public JournalEntryDto(Long id, String scenario, Status status, LocalDateTime draftedDate, LocalDateTime reviewedDate,
+                           LocalDateTime approvedDate, String assignedAccountant, String reviewNotes, String approveNotes) {
+        this(id, scenario, status, draftedDate, reviewedDate, approvedDate, assignedAccountant, reviewNotes, approveNotes, null);
+    }
+
+    public JournalEntryDto withVersion(final Long version) {
+        return new JournalEntryDto(id, scenario, status, draftedDate, reviewedDate, approvedDate, assignedAccountant, reviewNotes, approveNotes, version);
+    }
 }
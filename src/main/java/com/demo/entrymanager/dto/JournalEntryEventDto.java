@@ -0,0 +1,15 @@
+package com.demo.entrymanager.dto;
+
+import com.demo.entrymanager.model.Status;
+
+import java.time.LocalDateTime;
+
+public record JournalEntryEventDto(
+        Long id,
+        Long journalEntryId,
+        Status fromStatus,
+        Status toStatus,
+        LocalDateTime occurredAt,
+        Long accountantId
+) {
+}
@@ -0,0 +1,9 @@
+package com.demo.entrymanager.dto;
+
+import java.util.List;
+
+public record JournalEntryPageDto(
+        List<JournalEntryDto> entries,
+        String nextPageToken
+) {
+}
@@ -0,0 +1,11 @@
+package com.demo.entrymanager.dto;
+
+public record JournalEntryPatchDto(
+        String scenario,
+        String reviewNotes,
+        Long version
+) {
+    public JournalEntryPatchDto withVersion(final Long version) {
+        return new JournalEntryPatchDto(scenario, reviewNotes, version);
+    }
+}
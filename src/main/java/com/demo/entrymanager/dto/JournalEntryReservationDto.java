@@ -0,0 +1,24 @@
+package com.demo.entrymanager.dto;
+
+import com.demo.entrymanager.model.ReservationStatus;
+
+import java.util.UUID;
+
+public record JournalEntryReservationDto(
+        UUID reservationId,
+        ReservationStatus status,
+        Long journalEntryId,
+        String error
+) {
+    public static JournalEntryReservationDto ofPending(final UUID reservationId) {
+        return new JournalEntryReservationDto(reservationId, ReservationStatus.PENDING, null, null);
+    }
+
+    public static JournalEntryReservationDto ofPersisted(final UUID reservationId, final Long journalEntryId) {
+        return new JournalEntryReservationDto(reservationId, ReservationStatus.PERSISTED, journalEntryId, null);
+    }
+
+    public static JournalEntryReservationDto ofFailed(final UUID reservationId, final String error) {
+        return new JournalEntryReservationDto(reservationId, ReservationStatus.FAILED, null, error);
+    }
+}
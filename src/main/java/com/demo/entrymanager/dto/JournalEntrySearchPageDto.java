@@ -0,0 +1,9 @@
+package com.demo.entrymanager.dto;
+
+import java.util.List;
+
+public record JournalEntrySearchPageDto(
+        List<JournalEntryDto> entries,
+        long totalHits
+) {
+}
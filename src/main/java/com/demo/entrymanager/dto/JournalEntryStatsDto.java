@@ -0,0 +1,16 @@
+package com.demo.entrymanager.dto;
+
+import com.demo.entrymanager.model.Status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record JournalEntryStatsDto(
+        long total,
+        Map<Status, Long> byStatus,
+        List<AccountantCountDto> byAccountant,
+        long unassigned,
+        Map<LocalDate, Long> byDraftedDate
+) {
+}
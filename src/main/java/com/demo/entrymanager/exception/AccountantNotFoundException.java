@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class AccountantNotFoundException extends RuntimeException {
+public class AccountantNotFoundException extends BusinessException {
     public AccountantNotFoundException(String msg) {
-        super(msg);
+        super(ErrorCode.ACCOUNTANT_NOT_FOUND, msg);
     }
 }
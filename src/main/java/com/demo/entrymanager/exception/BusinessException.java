@@ -0,0 +1,18 @@
+package com.demo.entrymanager.exception;
+
+/**
+ * Base of the exceptions thrown for expected business rejections. They are answered with their error code and
+ * message and never logged, so no stack trace is captured: filling it in is most of the cost of throwing one.
+ */
+public abstract class BusinessException extends RuntimeException {
+    private final ErrorCode errorCode;
+
+    protected BusinessException(ErrorCode errorCode, String msg) {
+        super(msg, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.entrymanager.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Stable identifiers of the business rejections, returned to the clients next to the human readable message
+ * so they can react to a rejection without parsing the message.
+ */
+public enum ErrorCode {
+    MISSING_SCENARIO(HttpStatus.BAD_REQUEST),
+    INVALID_DATE_RANGE(HttpStatus.BAD_REQUEST),
+    JOURNAL_ENTRY_MISSING_REVIEW_NOTES(HttpStatus.BAD_REQUEST),
+    JOURNAL_ENTRY_MISSING_APPROVE_NOTES(HttpStatus.BAD_REQUEST),
+    JOURNAL_ENTRY_NOT_FOUND(HttpStatus.BAD_REQUEST),
+    INVALID_JOURNAL_ENTRY_STATE(HttpStatus.BAD_REQUEST),
+    ACCOUNTANT_NOT_FOUND(HttpStatus.BAD_REQUEST),
+    INVALID_PAGE_TOKEN(HttpStatus.BAD_REQUEST),
+    INVALID_SEARCH_QUERY(HttpStatus.BAD_REQUEST),
+    TOO_MANY_SUBSCRIBERS(HttpStatus.TOO_MANY_REQUESTS),
+    RESERVATION_NOT_FOUND(HttpStatus.BAD_REQUEST),
+    INGEST_QUEUE_FULL(HttpStatus.TOO_MANY_REQUESTS),
+    JOURNAL_ENTRY_VERSION_MISMATCH(HttpStatus.PRECONDITION_FAILED),
+    JOURNAL_ENTRY_TRANSITION_CONFLICT(HttpStatus.CONFLICT),
+    JOURNAL_ENTRY_ARCHIVED(HttpStatus.CONFLICT);
+
+    private final HttpStatus httpStatus;
+
+    ErrorCode(HttpStatus httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public HttpStatus getHttpStatus() {
+        return httpStatus;
+    }
+}
@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class IngestQueueFullException extends BusinessException {
+    public IngestQueueFullException(String msg) {
+        super(ErrorCode.INGEST_QUEUE_FULL, msg);
+    }
+}
@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class InvalidDateRangeException extends RuntimeException {
+public class InvalidDateRangeException extends BusinessException {
     public InvalidDateRangeException(String msg) {
-        super(msg);
+        super(ErrorCode.INVALID_DATE_RANGE, msg);
     }
 }
@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class InvalidJournalEntryStateException extends RuntimeException {
+public class InvalidJournalEntryStateException extends BusinessException {
     public InvalidJournalEntryStateException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_JOURNAL_ENTRY_STATE, message);
     }
 }
@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class InvalidPageTokenException extends BusinessException {
+    public InvalidPageTokenException(String msg) {
+        super(ErrorCode.INVALID_PAGE_TOKEN, msg);
+    }
+}
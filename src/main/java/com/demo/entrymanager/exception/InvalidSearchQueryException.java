@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class InvalidSearchQueryException extends BusinessException {
+    public InvalidSearchQueryException(String msg) {
+        super(ErrorCode.INVALID_SEARCH_QUERY, msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class JournalEntryArchivedException extends BusinessException {
+    public JournalEntryArchivedException(String msg) {
+        super(ErrorCode.JOURNAL_ENTRY_ARCHIVED, msg);
+    }
+}
@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class JournalEntryMissingApproveNotesException extends RuntimeException {
+public class JournalEntryMissingApproveNotesException extends BusinessException {
     public JournalEntryMissingApproveNotesException(String msg) {
-        super(msg);
+        super(ErrorCode.JOURNAL_ENTRY_MISSING_APPROVE_NOTES, msg);
     }
 }
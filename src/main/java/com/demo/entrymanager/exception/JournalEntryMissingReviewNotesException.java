@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class JournalEntryMissingReviewNotesException extends RuntimeException {
+public class JournalEntryMissingReviewNotesException extends BusinessException {
     public JournalEntryMissingReviewNotesException(String msg) {
-        super(msg);
+        super(ErrorCode.JOURNAL_ENTRY_MISSING_REVIEW_NOTES, msg);
     }
 }
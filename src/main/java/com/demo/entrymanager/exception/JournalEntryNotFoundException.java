@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class JournalEntryNotFoundException extends RuntimeException {
+public class JournalEntryNotFoundException extends BusinessException {
     public JournalEntryNotFoundException(String msg) {
-        super(msg);
+        super(ErrorCode.JOURNAL_ENTRY_NOT_FOUND, msg);
     }
 }
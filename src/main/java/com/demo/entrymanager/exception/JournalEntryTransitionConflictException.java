@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class JournalEntryTransitionConflictException extends BusinessException {
+    public JournalEntryTransitionConflictException(String msg) {
+        super(ErrorCode.JOURNAL_ENTRY_TRANSITION_CONFLICT, msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class JournalEntryVersionMismatchException extends BusinessException {
+    public JournalEntryVersionMismatchException(String msg) {
+        super(ErrorCode.JOURNAL_ENTRY_VERSION_MISMATCH, msg);
+    }
+}
@@ -1,7 +1,7 @@
 package com.demo.entrymanager.exception;
 
-public class MissingScenarioException extends RuntimeException{
+public class MissingScenarioException extends BusinessException{
     public MissingScenarioException(String msg) {
-        super(msg);
+        super(ErrorCode.MISSING_SCENARIO, msg);
     }
 }
@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class ReservationNotFoundException extends BusinessException {
+    public ReservationNotFoundException(String msg) {
+        super(ErrorCode.RESERVATION_NOT_FOUND, msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.demo.entrymanager.exception;
+
+public class TooManySubscribersException extends BusinessException {
+    public TooManySubscribersException(String msg) {
+        super(ErrorCode.TOO_MANY_SUBSCRIBERS, msg);
+    }
+}
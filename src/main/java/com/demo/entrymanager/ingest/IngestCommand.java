@@ -0,0 +1,29 @@
+package com.demo.entrymanager.ingest;
+
+import java.util.UUID;
+
+/**
+ * Change accepted by the asynchronous ingest path, logged before it is acknowledged and applied later by the writer.
+ */
+public record IngestCommand(
+        UUID reservationId,
+        CommandType type,
+        String scenario,
+        Long journalEntryId,
+        Long accountantId
+) {
+    public enum CommandType {
+        CREATE,
+        ASSIGN_ACCOUNTANT,
+        REVIEW,
+        APPROVE
+    }
+
+    public static IngestCommand ofCreate(final UUID reservationId, final String scenario) {
+        return new IngestCommand(reservationId, CommandType.CREATE, scenario, null, null);
+    }
+
+    public static IngestCommand ofTransition(final UUID reservationId, final CommandType type, final Long journalEntryId, final Long accountantId) {
+        return new IngestCommand(reservationId, type, null, journalEntryId, accountantId);
+    }
+}
@@ -0,0 +1,369 @@
+package com.demo.entrymanager.ingest;
+
+import com.demo.entrymanager.dto.JournalEntryBatchItemDto;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryReservationDto;
+import com.demo.entrymanager.exception.BusinessException;
+import com.demo.entrymanager.exception.IngestQueueFullException;
+import com.demo.entrymanager.exception.MissingScenarioException;
+import com.demo.entrymanager.exception.ReservationNotFoundException;
+import com.demo.entrymanager.model.ReservationStatus;
+import com.demo.entrymanager.repository.JournalEntryReservationRepository;
+import com.demo.entrymanager.util.ErrorMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-then-apply ingest of drafts and transitions: a command is forced to the write-ahead log and acknowledged
+ * with a reservation id, then a single writer drains the queue. Drafts are written in batched inserts, a batch is
+ * written once it is full or once its first command waited for the linger time, transitions are applied one by one
+ * in the order they were accepted.
+ * <p>
+ * The queue is bounded, a full queue rejects new commands instead of growing. Commands accepted before a crash are
+ * replayed from the log at startup, the reservations table keeps the replay from applying a command twice or applying
+ * one that was reported failed: a failure is only reported once it is recorded there.
+ */
+@Component
+public class JournalEntryIngestQueue implements SmartLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEntryIngestQueue.class);
+    // starts before and stops after the web server, so no request reaches a stopped queue
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final JournalEntryIngestWriter journalEntryIngestWriter;
+    private final JournalEntryReservationRepository journalEntryReservationRepository;
+    private final WriteAheadLog writeAheadLog;
+    private final BlockingQueue<IngestCommand> queue = new LinkedBlockingQueue<>();
+    // the permits bound the queue, a slot is taken before logging so a rejected command is never logged
+    private final Semaphore capacity;
+    // accepted and not completed yet, the outcomes are read from the reservations table
+    private final Set<UUID> pendingIds = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration retryBackoff;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public JournalEntryIngestQueue(JournalEntryIngestWriter journalEntryIngestWriter,
+                                   JournalEntryReservationRepository journalEntryReservationRepository,
+                                   ObjectMapper objectMapper,
+                                   @Value("${entrymanager.ingest.wal-dir:data/wal}") Path walDirectory,
+                                   @Value("${entrymanager.ingest.segment-size:64MB}") DataSize segmentSize,
+                                   @Value("${entrymanager.ingest.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${entrymanager.ingest.batch-size:500}") int batchSize,
+                                   @Value("${entrymanager.ingest.linger:PT0.05S}") Duration linger,
+                                   @Value("${entrymanager.ingest.retry-backoff:PT1S}") Duration retryBackoff) {
+        this.journalEntryIngestWriter = journalEntryIngestWriter;
+        this.journalEntryReservationRepository = journalEntryReservationRepository;
+        this.writeAheadLog = new WriteAheadLog(walDirectory, segmentSize.toBytes(), objectMapper);
+        this.capacity = new Semaphore(queueCapacity);
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Accepts a draft for asynchronous creation.
+     *
+     * @throws MissingScenarioException if the scenario is missing, the draft would never be created.
+     * @throws IngestQueueFullException if the queue is full or the application is stopping.
+     */
+    public JournalEntryReservationDto submitDraft(final JournalEntryDto journalEntryDto) {
+        if (journalEntryDto == null || journalEntryDto.scenario() == null || journalEntryDto.scenario().isBlank()) {
+            throw new MissingScenarioException(ErrorMessages.SCENARIO_MISSING);
+        }
+        return submit(IngestCommand.ofCreate(UUID.randomUUID(), journalEntryDto.scenario()));
+    }
+
+    /**
+     * Accepts a transition for asynchronous application, its state checks run when it is applied and a rejected
+     * transition leaves its reservation failed.
+     *
+     * @param accountantId the accountant to assign, only used by {@link IngestCommand.CommandType#ASSIGN_ACCOUNTANT}.
+     * @throws IngestQueueFullException if the queue is full or the application is stopping.
+     */
+    public JournalEntryReservationDto submitTransition(final IngestCommand.CommandType type, final Long journalEntryId, final Long accountantId) {
+        return submit(IngestCommand.ofTransition(UUID.randomUUID(), type, journalEntryId, accountantId));
+    }
+
+    private JournalEntryReservationDto submit(final IngestCommand command) {
+        if (!running || !capacity.tryAcquire()) {
+            throw new IngestQueueFullException(ErrorMessages.INGEST_QUEUE_FULL);
+        }
+
+        try {
+            writeAheadLog.append(command);
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException(e);
+        }
+        pendingIds.add(command.reservationId());
+        queue.add(command);
+        return JournalEntryReservationDto.ofPending(command.reservationId());
+    }
+
+    /**
+     * @throws ReservationNotFoundException if no command was accepted with the reservation id.
+     */
+    public JournalEntryReservationDto getReservation(final UUID reservationId) {
+        // a command leaves the pending ids only once its reservation is committed
+        if (pendingIds.contains(reservationId)) {
+            return JournalEntryReservationDto.ofPending(reservationId);
+        }
+        return journalEntryReservationRepository.findById(reservationId)
+                .map(reservation -> reservation.getStatus() == ReservationStatus.FAILED
+                        ? JournalEntryReservationDto.ofFailed(reservationId, reservation.getError())
+                        : JournalEntryReservationDto.ofPersisted(reservationId, reservation.getJournalEntryId()))
+                .orElseThrow(() -> new ReservationNotFoundException(ErrorMessages.RESERVATION_NOT_FOUND));
+    }
+
+    @Override
+    public void start() {
+        try {
+            replay(writeAheadLog.open());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("journal-entry-ingest").daemon().start(this::drain);
+    }
+
+    private void replay(final List<IngestCommand> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        final Set<UUID> completedIds = new HashSet<>();
+        journalEntryReservationRepository.findAllById(pending.stream().map(IngestCommand::reservationId).toList())
+                .forEach(reservation -> completedIds.add(reservation.getReservationId()));
+        // applied or failed before the crash but their completions were lost, completing them lets their segments go
+        appendCompleted(completedIds);
+        final List<IngestCommand> uncompleted = pending.stream()
+                .filter(command -> !completedIds.contains(command.reservationId()))
+                .toList();
+        uncompleted.forEach(command -> pendingIds.add(command.reservationId()));
+        for (int from = 0; from < uncompleted.size(); from += batchSize) {
+            final List<IngestCommand> batch = uncompleted.subList(from, Math.min(from + batchSize, uncompleted.size()));
+            try {
+                apply(batch);
+            } catch (InterruptedException e) {
+                // the commands of the later batches are left in the write-ahead log, the next start replays them
+                failInterrupted(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        LOGGER.info("Replayed {} ingest commands from the write-ahead log, {} were already completed",
+                uncompleted.size(), completedIds.size());
+    }
+
+    private void drain() {
+        final List<IngestCommand> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    apply(batch);
+                } catch (InterruptedException e) {
+                    // the queued commands are left in the write-ahead log, the next start replays them
+                    failInterrupted(batch);
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    capacity.release(batch.size());
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void collectBatch(final List<IngestCommand> batch) throws InterruptedException {
+        final IngestCommand first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        final long deadline = System.nanoTime() + linger.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            final IngestCommand next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // drafts only go in one batch insert when no transition sits between them, the acceptance order is kept
+    private void apply(final List<IngestCommand> batch) throws InterruptedException {
+        int from = 0;
+        while (from < batch.size()) {
+            final IngestCommand command = batch.get(from);
+            if (command.type() != IngestCommand.CommandType.CREATE) {
+                applyTransition(command);
+                from++;
+                continue;
+            }
+            int to = from + 1;
+            while (to < batch.size() && batch.get(to).type() == IngestCommand.CommandType.CREATE) {
+                to++;
+            }
+            persistDrafts(batch.subList(from, to));
+            from = to;
+        }
+    }
+
+    private void persistDrafts(final List<IngestCommand> createCommands) throws InterruptedException {
+        try {
+            retryWhileUnavailable(() -> completed(journalEntryIngestWriter.persistDrafts(createCommands)));
+        } catch (RuntimeException e) {
+            // a draft the database rejects must not hold back the rest of the batch
+            if (createCommands.size() > 1) {
+                for (final IngestCommand createCommand : createCommands) {
+                    persistDrafts(List.of(createCommand));
+                }
+                return;
+            }
+            failed(createCommands.get(0), e);
+        }
+    }
+
+    private void applyTransition(final IngestCommand transitionCommand) throws InterruptedException {
+        try {
+            retryWhileUnavailable(() -> {
+                journalEntryIngestWriter.applyTransition(transitionCommand);
+                appendCompleted(List.of(transitionCommand.reservationId()));
+            });
+        } catch (RuntimeException e) {
+            failed(transitionCommand, e);
+        }
+    }
+
+    /**
+     * @throws InterruptedException if the writer is interrupted while waiting for the database, the action was not applied.
+     */
+    private void retryWhileUnavailable(final Runnable action) throws InterruptedException {
+        while (true) {
+            try {
+                action.run();
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException | CannotCreateTransactionException e) {
+                // the database is unavailable, the commands stay queued and the full queue pushes back on the clients
+                LOGGER.warn("Applying ingest commands failed, retrying in {}", retryBackoff, e);
+                Thread.sleep(retryBackoff);
+            }
+        }
+    }
+
+    // the interrupted writer exits, the failure of the commands it did not complete is recorded once without retrying.
+    // Once recording fails the database is still unavailable: the remaining commands stay pending in the write-ahead
+    // log for the next start instead of each waiting for a connection
+    private void failInterrupted(final List<IngestCommand> batch) {
+        for (final IngestCommand command : batch) {
+            final UUID reservationId = command.reservationId();
+            if (!pendingIds.contains(reservationId)) {
+                continue;
+            }
+            try {
+                journalEntryIngestWriter.recordFailure(reservationId, ErrorMessages.INGEST_INTERRUPTED);
+                appendCompleted(List.of(reservationId));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Recording the failure of interrupted ingest command {} failed", reservationId, e);
+                return;
+            }
+        }
+    }
+
+    private void failed(final IngestCommand command, final RuntimeException e) throws InterruptedException {
+        final UUID reservationId = command.reservationId();
+        if (!(e instanceof BusinessException)) {
+            LOGGER.warn("Ingest command {} could not be applied", reservationId, e);
+        }
+        try {
+            retryWhileUnavailable(() -> {
+                journalEntryIngestWriter.recordFailure(reservationId, e.getMessage());
+                appendCompleted(List.of(reservationId));
+            });
+        } catch (RuntimeException recordingFailure) {
+            // left pending here and in the write-ahead log, the next start replays the command
+            LOGGER.warn("Recording the failure of ingest command {} failed", reservationId, recordingFailure);
+        }
+    }
+
+    // the rejected drafts were recorded as failed with the accepted ones
+    private void completed(final Map<UUID, JournalEntryBatchItemDto> itemsByReservationId) {
+        appendCompleted(itemsByReservationId.keySet());
+    }
+
+    private void appendCompleted(final Iterable<UUID> reservationIds) {
+        final List<UUID> completedIds = new ArrayList<>();
+        reservationIds.forEach(completedIds::add);
+        pendingIds.removeAll(completedIds);
+        try {
+            writeAheadLog.complete(completedIds);
+        } catch (IOException e) {
+            // the reservations table keeps the replay from applying these commands again
+            LOGGER.warn("Recording {} completed reservations in the write-ahead log failed", completedIds.size(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            writeAheadLog.close();
+        } catch (IOException e) {
+            LOGGER.warn("Closing the write-ahead log failed", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
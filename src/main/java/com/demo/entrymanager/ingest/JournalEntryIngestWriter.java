@@ -0,0 +1,80 @@
+package com.demo.entrymanager.ingest;
+
+import com.demo.entrymanager.dto.JournalEntryBatchItemDto;
+import com.demo.entrymanager.dto.JournalEntryBatchResultDto;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.model.JournalEntryReservation;
+import com.demo.entrymanager.repository.JournalEntryReservationRepository;
+import com.demo.entrymanager.service.JournalEntryService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies ingest commands and records their reservations in the same transaction: a batch of drafts goes through
+ * the batch creation, a transition is applied on its own. The rejected commands are recorded as failed.
+ */
+@Component
+public class JournalEntryIngestWriter {
+    private final JournalEntryService journalEntryService;
+    private final JournalEntryReservationRepository journalEntryReservationRepository;
+
+    public JournalEntryIngestWriter(JournalEntryService journalEntryService, JournalEntryReservationRepository journalEntryReservationRepository) {
+        this.journalEntryService = journalEntryService;
+        this.journalEntryReservationRepository = journalEntryReservationRepository;
+    }
+
+    /**
+     * @return the result of each draft by reservation id, the rejected drafts are recorded as failed with the accepted ones.
+     */
+    @Transactional
+    public Map<UUID, JournalEntryBatchItemDto> persistDrafts(final List<IngestCommand> createCommands) {
+        final List<JournalEntryDto> journalEntryDtos = createCommands.stream()
+                .map(createCommand -> new JournalEntryDto(null, createCommand.scenario(), null, null, null, null, null, null, null))
+                .toList();
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.createJournalEntries(journalEntryDtos);
+
+        final LocalDateTime completedDate = LocalDateTime.now();
+        final Map<UUID, JournalEntryBatchItemDto> itemsByReservationId = new LinkedHashMap<>();
+        final List<JournalEntryReservation> reservations = new ArrayList<>(createCommands.size());
+        for (int i = 0; i < createCommands.size(); i++) {
+            final UUID reservationId = createCommands.get(i).reservationId();
+            final JournalEntryBatchItemDto item = batchResultDto.items().get(i);
+            itemsByReservationId.put(reservationId, item);
+            reservations.add(item.accepted()
+                    ? JournalEntryReservation.ofPersisted(reservationId, item.id(), completedDate)
+                    : JournalEntryReservation.ofFailed(reservationId, item.error(), completedDate));
+        }
+        journalEntryReservationRepository.saveAll(reservations);
+
+        return itemsByReservationId;
+    }
+
+    @Transactional
+    public JournalEntryDto applyTransition(final IngestCommand transitionCommand) {
+        final Long journalEntryId = transitionCommand.journalEntryId();
+        final JournalEntryDto journalEntryDto = switch (transitionCommand.type()) {
+            case ASSIGN_ACCOUNTANT -> journalEntryService.assignAccountantToJournalEntry(journalEntryId, transitionCommand.accountantId());
+            case REVIEW -> journalEntryService.reviewJournalEntry(journalEntryId);
+            case APPROVE -> journalEntryService.approveJournalEntry(journalEntryId);
+            case CREATE -> throw new IllegalArgumentException("Drafts are persisted in batches");
+        };
+        journalEntryReservationRepository.save(JournalEntryReservation.ofPersisted(transitionCommand.reservationId(), journalEntryId, LocalDateTime.now()));
+
+        return journalEntryDto;
+    }
+
+    /**
+     * Records a command whose changes were rolled back, in a transaction of its own.
+     */
+    @Transactional
+    public void recordFailure(final UUID reservationId, final String error) {
+        journalEntryReservationRepository.save(JournalEntryReservation.ofFailed(reservationId, error, LocalDateTime.now()));
+    }
+}
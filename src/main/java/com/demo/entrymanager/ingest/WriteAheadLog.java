@@ -0,0 +1,263 @@
+package com.demo.entrymanager.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented append-only log of the ingest commands and of their completions.
+ * <p>
+ * Each record is framed as its length, the CRC32 of its payload and the JSON payload, so a record torn by a crash
+ * is detected and ignored. A command is forced to disk before {@link #append} returns, the forces are shared: while
+ * one thread forces the segment the others append behind it, and one force then covers all of them (group commit).
+ * Completions are not forced, a lost one only makes the replay check the reservations table for that command.
+ * <p>
+ * A segment is rolled once it exceeds the segment size and deleted once all its commands completed and every older
+ * segment is deleted, so completions in later segments never outlive the commands they refer to.
+ */
+class WriteAheadLog implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    enum RecordType {
+        COMMAND,
+        COMPLETED
+    }
+
+    record LogRecord(RecordType type, UUID reservationId, IngestCommand command) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private FileChannel channel;
+        private int outstanding;
+
+        private Segment(long id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+    }
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ObjectMapper objectMapper;
+
+    // appends and segment bookkeeping, never held while forcing
+    private final Object writeLock = new Object();
+    // forces and rolls, so a segment is never closed while it is being forced
+    private final Object syncLock = new Object();
+
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<UUID, Segment> outstandingCommands = new HashMap<>();
+    private Segment current;
+    private long writtenSequence;
+    private volatile long durableSequence;
+
+    WriteAheadLog(Path directory, long segmentSize, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the existing segments and opens a new one for the appends. The returned commands keep their segments
+     * until they are passed to {@link #complete}.
+     *
+     * @return the commands that were logged and never completed, in the order they were logged.
+     */
+    List<IngestCommand> open() throws IOException {
+        Files.createDirectories(directory);
+        final Map<UUID, IngestCommand> pending = new LinkedHashMap<>();
+        synchronized (writeLock) {
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                        .forEach(path -> segments.put(segmentId(path), new Segment(segmentId(path), path)));
+            }
+            for (final Segment segment : segments.values()) {
+                read(segment, pending);
+            }
+            current = openSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1);
+            deleteAppliedSegments();
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Logs the command and returns once it is on disk.
+     */
+    void append(final IngestCommand command) throws IOException {
+        final long sequence;
+        synchronized (writeLock) {
+            sequence = write(new LogRecord(RecordType.COMMAND, command.reservationId(), command));
+            current.outstanding++;
+            outstandingCommands.put(command.reservationId(), current);
+        }
+        sync(sequence);
+    }
+
+    void complete(final Collection<UUID> reservationIds) throws IOException {
+        synchronized (writeLock) {
+            for (final UUID reservationId : reservationIds) {
+                write(new LogRecord(RecordType.COMPLETED, reservationId, null));
+                final Segment segment = outstandingCommands.remove(reservationId);
+                if (segment != null) {
+                    segment.outstanding--;
+                }
+            }
+            deleteAppliedSegments();
+        }
+    }
+
+    // only a prefix is deleted, a completion in a later segment may still refer to a command in an older one
+    private void deleteAppliedSegments() throws IOException {
+        Segment oldest = segments.firstEntry().getValue();
+        while (oldest != current && oldest.outstanding == 0) {
+            delete(oldest);
+            oldest = segments.firstEntry().getValue();
+        }
+    }
+
+    // group commit: a thread that finds its record already forced by another one returns without forcing
+    private void sync(final long sequence) throws IOException {
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            final long target;
+            final Segment segment;
+            synchronized (writeLock) {
+                target = writtenSequence;
+                segment = current;
+            }
+            segment.channel.force(false);
+            durableSequence = target;
+
+            if (segment.channel.size() >= segmentSize) {
+                roll(segment);
+            }
+        }
+    }
+
+    private void roll(final Segment segment) throws IOException {
+        synchronized (writeLock) {
+            // records appended since the force above are forced with the segment before it is closed
+            segment.channel.force(false);
+            segment.channel.close();
+            current = openSegment(segment.id + 1);
+        }
+    }
+
+    private long write(final LogRecord logRecord) throws IOException {
+        final byte[] payload = objectMapper.writeValueAsBytes(logRecord);
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        while (buffer.hasRemaining()) {
+            current.channel.write(buffer);
+        }
+        return ++writtenSequence;
+    }
+
+    private void read(final Segment segment, final Map<UUID, IngestCommand> pending) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long position = 0;
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                final int length = header.flip().getInt();
+                final int checksum = header.getInt();
+                if (length < 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                final ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(channel, payload, position + HEADER_BYTES);
+                final CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                final LogRecord logRecord = objectMapper.readValue(payload.array(), LogRecord.class);
+                if (logRecord.type() == RecordType.COMMAND) {
+                    pending.put(logRecord.reservationId(), logRecord.command());
+                    outstandingCommands.put(logRecord.reservationId(), segment);
+                    segment.outstanding++;
+                } else if (pending.remove(logRecord.reservationId()) != null) {
+                    outstandingCommands.remove(logRecord.reservationId()).outstanding--;
+                }
+                position += HEADER_BYTES + length;
+            }
+            if (position < size) {
+                // a torn record was never acknowledged, whatever follows it was never written
+                LOGGER.warn("Ignoring {} bytes after the last complete record of {}", size - position, segment.path);
+            }
+        }
+    }
+
+    private void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + channel);
+            }
+        }
+    }
+
+    private Segment openSegment(final long id) throws IOException {
+        final Segment segment = new Segment(id, directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+        segment.channel = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void delete(final Segment segment) throws IOException {
+        segments.remove(segment.id);
+        if (segment.channel != null && segment.channel.isOpen()) {
+            segment.channel.close();
+        }
+        Files.deleteIfExists(segment.path);
+    }
+
+    private long segmentId(final Path path) {
+        final String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (current != null) {
+                    current.channel.force(false);
+                    current.channel.close();
+                }
+            }
+        }
+    }
+}
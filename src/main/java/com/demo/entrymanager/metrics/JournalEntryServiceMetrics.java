@@ -0,0 +1,62 @@
+package com.demo.entrymanager.metrics;
+
+import com.demo.entrymanager.dto.JournalEntryPageDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every {@link com.demo.entrymanager.service.JournalEntryService} call, tagged by method, outcome and
+ * exception type, and records how many entries each page of {@code getJournalEntries} returned.
+ * Runs outside the transaction so the timings include the commit and its failures.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JournalEntryServiceMetrics {
+    public static final String SERVICE_TIMER = "journalentry.service";
+    public static final String PAGE_ENTRIES_SUMMARY = "journalentry.page.entries";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary pageEntries;
+
+    public JournalEntryServiceMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.pageEntries = DistributionSummary.builder(PAGE_ENTRIES_SUMMARY)
+                .description("Number of journal entries returned per page")
+                .baseUnit("entries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Around("execution(* com.demo.entrymanager.service.JournalEntryService.*(..))")
+    public Object time(final ProceedingJoinPoint joinPoint) throws Throwable {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NO_EXCEPTION;
+        try {
+            final Object result = joinPoint.proceed();
+            if (result instanceof JournalEntryPageDto journalEntryPageDto) {
+                pageEntries.record(journalEntryPageDto.entries().size());
+            }
+            return result;
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .description("Journal entry service calls")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", NO_EXCEPTION.equals(exception) ? "SUCCESS" : "ERROR")
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
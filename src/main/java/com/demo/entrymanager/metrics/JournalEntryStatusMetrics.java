@@ -0,0 +1,35 @@
+package com.demo.entrymanager.metrics;
+
+import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.repository.JournalEntryCounterRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges of how many journal entries are in each {@link Status}, i.e. the backlog of every workflow stage.
+ * They are read from the journal entry counters when the metric is scraped.
+ */
+@Component
+public class JournalEntryStatusMetrics implements MeterBinder {
+    public static final String STATUS_GAUGE = "journalentry.status";
+
+    private final JournalEntryCounterRepository journalEntryCounterRepository;
+
+    public JournalEntryStatusMetrics(final JournalEntryCounterRepository journalEntryCounterRepository) {
+        this.journalEntryCounterRepository = journalEntryCounterRepository;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry meterRegistry) {
+        for (final Status status : Status.values()) {
+            Gauge.builder(STATUS_GAUGE, journalEntryCounterRepository, repository -> repository.sumByStatus(status))
+                    .description("Number of journal entries in the status")
+                    .baseUnit("entries")
+                    .tag("status", status.name())
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.demo.entrymanager.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
+@Table(indexes = @Index(name = "idx_accountant_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Accountant.CACHE_REGION)
 public class Accountant {
+    public static final String CACHE_REGION = "accountant";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,86 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Approved journal entry moved out of the journal entries by the archival, so the queries and indexes on the
+ * entries that are still worked on do not carry it. Approved entries are final, an archived one is never changed.
+ */
+@Entity
+@Immutable
+@Table(indexes = {
+        @Index(name = "idx_archived_journal_entry_drafted_date_id", columnList = "drafted_date, id")
+})
+public class ArchivedJournalEntry {
+    // keeps the id the entry had, the ids stay unique across both tables
+    @Id
+    private Long id;
+
+    private String scenario;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private LocalDateTime draftedDate;
+    private LocalDateTime reviewedDate;
+    private LocalDateTime approvedDate;
+    private String reviewNotes;
+    private String approveNotes;
+
+    @ManyToOne
+    @JoinColumn(name = "assignedAccountantId")
+    private Accountant assignedAccountant;
+
+    private Long version;
+    private LocalDateTime archivedDate;
+
+    public ArchivedJournalEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getDraftedDate() {
+        return draftedDate;
+    }
+
+    public LocalDateTime getReviewedDate() {
+        return reviewedDate;
+    }
+
+    public LocalDateTime getApprovedDate() {
+        return approvedDate;
+    }
+
+    public String getReviewNotes() {
+        return reviewNotes;
+    }
+
+    public String getApproveNotes() {
+        return approveNotes;
+    }
+
+    public Accountant getAssignedAccountant() {
+        return assignedAccountant;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getArchivedDate() {
+        return archivedDate;
+    }
+}
@@ -1,14 +1,22 @@
 package com.demo.entrymanager.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_journal_entry_status_drafted_date", columnList = "status, drafted_date"),
+        @Index(name = "idx_journal_entry_drafted_date_id", columnList = "drafted_date, id"),
+        @Index(name = "idx_journal_entry_assigned_accountant", columnList = "assigned_accountant_id")
+})
 public class JournalEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entry_seq")
+    @SequenceGenerator(name = "journal_entry_seq", sequenceName = "journal_entry_seq", allocationSize = 50)
     private Long id;
 
     private String scenario;
@@ -26,6 +34,9 @@ public class JournalEntry {
     @JoinColumn(name = "assignedAccountantId")
     private Accountant assignedAccountant;
 
+    @Version
+    private Long version;
+
     public JournalEntry() {
     }
 
@@ -108,6 +119,14 @@ public class JournalEntry {
         this.assignedAccountant = assignedAccountant;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,36 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Drafted date range of the archived journal entries. Its single row is widened and committed before an archival
+ * moves entries, so the filters of every instance read the archive as soon as the entries can be in it.
+ */
+@Entity
+public class JournalEntryArchiveRange {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private LocalDateTime oldestDraftedDate;
+    private LocalDateTime newestDraftedDate;
+
+    public JournalEntryArchiveRange() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getOldestDraftedDate() {
+        return oldestDraftedDate;
+    }
+
+    public LocalDateTime getNewestDraftedDate() {
+        return newestDraftedDate;
+    }
+}
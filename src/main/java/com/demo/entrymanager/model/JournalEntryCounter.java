@@ -0,0 +1,33 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+
+/**
+ * Number of journal entries per status and assigned accountant, kept up to date in the same transaction
+ * as the creations and transitions so the counts can be read without scanning the journal entries.
+ * A count is the sum of the shards of its pair.
+ */
+@Entity
+public class JournalEntryCounter {
+    @EmbeddedId
+    private JournalEntryCounterId id;
+
+    private long entries;
+
+    public JournalEntryCounter() {
+    }
+
+    public JournalEntryCounter(JournalEntryCounterId id, long entries) {
+        this.id = id;
+        this.entries = entries;
+    }
+
+    public JournalEntryCounterId getId() {
+        return id;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class JournalEntryCounterId implements Serializable {
+    // accountant ids are generated from 1, so 0 can stand for the entries without an accountant
+    public static final long UNASSIGNED_ACCOUNTANT_ID = 0L;
+    // every status and accountant pair is split over this many rows, so concurrent writers rarely update the same one
+    public static final int SHARDS = 16;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "accountant_id")
+    private Long accountantId;
+
+    private int shard;
+
+    public JournalEntryCounterId() {
+    }
+
+    public JournalEntryCounterId(Status status, Long accountantId) {
+        this(status, accountantId, 0);
+    }
+
+    public JournalEntryCounterId(Status status, Long accountantId, int shard) {
+        this.status = status;
+        this.accountantId = accountantId;
+        this.shard = shard;
+    }
+
+    public static JournalEntryCounterId of(final JournalEntry journalEntry) {
+        final Accountant assignedAccountant = journalEntry.getAssignedAccountant();
+        return new JournalEntryCounterId(journalEntry.getStatus(),
+                assignedAccountant != null ? assignedAccountant.getId() : UNASSIGNED_ACCOUNTANT_ID);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getAccountantId() {
+        return accountantId;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JournalEntryCounterId that = (JournalEntryCounterId) o;
+        return shard == that.shard && status == that.status && Objects.equals(accountantId, that.accountantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, accountantId, shard);
+    }
+}
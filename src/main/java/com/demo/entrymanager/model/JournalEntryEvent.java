@@ -0,0 +1,78 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row recording one status transition of a journal entry, written in the same transaction as the
+ * transition so the change feed never misses or invents one. The feed position is given after the commit.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_journal_entry_event_feed_position", columnList = "feed_position"))
+public class JournalEntryEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entry_event_seq")
+    @SequenceGenerator(name = "journal_entry_event_seq", sequenceName = "journal_entry_event_seq", allocationSize = 50)
+    private Long id;
+
+    private Long journalEntryId;
+
+    @Enumerated(EnumType.STRING)
+    private Status fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    private Status toStatus;
+
+    private LocalDateTime occurredAt;
+    private Long accountantId;
+    private Long feedPosition;
+
+    public JournalEntryEvent() {
+    }
+
+    public JournalEntryEvent(Long journalEntryId, Status fromStatus, Status toStatus, LocalDateTime occurredAt, Long accountantId) {
+        this.journalEntryId = journalEntryId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.occurredAt = occurredAt;
+        this.accountantId = accountantId;
+    }
+
+    public static JournalEntryEvent of(JournalEntry journalEntry, Status fromStatus, LocalDateTime occurredAt) {
+        final Long accountantId = journalEntry.getAssignedAccountant() != null ? journalEntry.getAssignedAccountant().getId() : null;
+        return new JournalEntryEvent(journalEntry.getId(), fromStatus, journalEntry.getStatus(), occurredAt, accountantId);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getJournalEntryId() {
+        return journalEntryId;
+    }
+
+    public Status getFromStatus() {
+        return fromStatus;
+    }
+
+    public Status getToStatus() {
+        return toStatus;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Long getAccountantId() {
+        return accountantId;
+    }
+
+    public Long getFeedPosition() {
+        return feedPosition;
+    }
+
+    public void setFeedPosition(Long feedPosition) {
+        this.feedPosition = feedPosition;
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Last change feed position handed out to an event. Its single row is locked while the committed events get their
+ * positions, which orders the positions by commit across all the instances.
+ */
+@Entity
+public class JournalEntryFeedHead {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long feedPosition;
+
+    public JournalEntryFeedHead() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getFeedPosition() {
+        return feedPosition;
+    }
+
+    public void setFeedPosition(long feedPosition) {
+        this.feedPosition = feedPosition;
+    }
+}
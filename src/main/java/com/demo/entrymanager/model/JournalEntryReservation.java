@@ -0,0 +1,98 @@
+package com.demo.entrymanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Command accepted by the asynchronous ingest and completed since, saved in the same transaction as the command's
+ * changes so a command replayed from the write-ahead log is never applied twice. A failed command is saved with its
+ * error before the failure is reported, so the replay never applies a command its client saw failing.
+ */
+@Entity
+public class JournalEntryReservation implements Persistable<UUID> {
+    private static final int ERROR_LENGTH = 1000;
+
+    @Id
+    private UUID reservationId;
+
+    private Long journalEntryId;
+
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    @Column(length = ERROR_LENGTH)
+    private String error;
+
+    private LocalDateTime completedDate;
+
+    // the id is assigned by the client of the queue, without this flag every save would select the row first
+    @Transient
+    private boolean isNew = true;
+
+    public JournalEntryReservation() {
+    }
+
+    public JournalEntryReservation(UUID reservationId, Long journalEntryId, ReservationStatus status, String error, LocalDateTime completedDate) {
+        this.reservationId = reservationId;
+        this.journalEntryId = journalEntryId;
+        this.status = status;
+        this.error = error;
+        this.completedDate = completedDate;
+    }
+
+    public static JournalEntryReservation ofPersisted(UUID reservationId, Long journalEntryId, LocalDateTime completedDate) {
+        return new JournalEntryReservation(reservationId, journalEntryId, ReservationStatus.PERSISTED, null, completedDate);
+    }
+
+    public static JournalEntryReservation ofFailed(UUID reservationId, String error, LocalDateTime completedDate) {
+        // a database error can outgrow the column, failing to record it would leave the command to be replayed
+        final String storedError = error != null && error.length() > ERROR_LENGTH ? error.substring(0, ERROR_LENGTH) : error;
+        return new JournalEntryReservation(reservationId, null, ReservationStatus.FAILED, storedError, completedDate);
+    }
+
+    @Override
+    public UUID getId() {
+        return reservationId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public Long getJournalEntryId() {
+        return journalEntryId;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCompletedDate() {
+        return completedDate;
+    }
+}
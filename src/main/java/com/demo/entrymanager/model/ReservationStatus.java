@@ -0,0 +1,7 @@
+package com.demo.entrymanager.model;
+
+public enum ReservationStatus {
+    PENDING,
+    PERSISTED,
+    FAILED
+}
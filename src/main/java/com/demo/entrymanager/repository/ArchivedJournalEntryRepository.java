@@ -0,0 +1,26 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.ArchivedJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ArchivedJournalEntryRepository extends JpaRepository<ArchivedJournalEntry, Long> {
+
+    @Query("select new com.demo.entrymanager.repository.DraftedDateRange(min(a.draftedDate), max(a.draftedDate)) from ArchivedJournalEntry a")
+    DraftedDateRange findDraftedDateRange();
+
+    // copied row by row in the database, the archived entries never pass through the persistence context
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into archived_journal_entry (id, scenario, status, drafted_date, reviewed_date, " +
+            "approved_date, review_notes, approve_notes, assigned_accountant_id, version, archived_date) " +
+            "select id, scenario, status, drafted_date, reviewed_date, approved_date, review_notes, approve_notes, " +
+            "assigned_accountant_id, version, :archivedDate from journal_entry where id in :ids and status = 'APPROVED'")
+    int copyFromJournalEntries(@Param("ids") Collection<Long> ids, @Param("archivedDate") LocalDateTime archivedDate);
+}
@@ -0,0 +1,6 @@
+package com.demo.entrymanager.repository;
+
+public enum DateBucket {
+    DAY,
+    MONTH
+}
@@ -0,0 +1,11 @@
+package com.demo.entrymanager.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Oldest and newest drafted date of a set of journal entries, both null when the set is empty.
+ */
+public record DraftedDateRange(
+        LocalDateTime oldest,
+        LocalDateTime newest) {
+}
@@ -0,0 +1,51 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntryArchiveRange;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Drafted date range of the archived journal entries, so a filter can tell whether the archive may hold matches
+ * without querying it. The range is read from the database on each filter, one primary key lookup, as the archiver
+ * of any instance may have moved entries since. The archival widens it in a committed transaction before it moves
+ * entries, so they are never outside of it while they move.
+ */
+@Component
+public class JournalEntryArchiveBounds implements InitializingBean {
+    private final ArchivedJournalEntryRepository archivedJournalEntryRepository;
+    private final JournalEntryArchiveRangeRepository journalEntryArchiveRangeRepository;
+
+    public JournalEntryArchiveBounds(ArchivedJournalEntryRepository archivedJournalEntryRepository,
+                                     JournalEntryArchiveRangeRepository journalEntryArchiveRangeRepository) {
+        this.archivedJournalEntryRepository = archivedJournalEntryRepository;
+        this.journalEntryArchiveRangeRepository = journalEntryArchiveRangeRepository;
+    }
+
+    // covers the entries archived before the range was recorded, widening with them again changes nothing
+    @Override
+    public void afterPropertiesSet() {
+        include(archivedJournalEntryRepository.findDraftedDateRange());
+    }
+
+    public void include(final DraftedDateRange movedRange) {
+        if (movedRange.oldest() == null) {
+            return;
+        }
+        journalEntryArchiveRangeRepository.widen(JournalEntryArchiveRange.ID, movedRange.oldest(), movedRange.newest());
+    }
+
+    /**
+     * @return false if no archived entry was drafted between the dates, a null date leaves that side open.
+     */
+    public boolean mayContain(final LocalDateTime startDate, final LocalDateTime endDate) {
+        final DraftedDateRange range = journalEntryArchiveRangeRepository.findDraftedDateRange(JournalEntryArchiveRange.ID)
+                .orElse(null);
+        if (range == null || range.oldest() == null) {
+            return false;
+        }
+        return (startDate == null || !startDate.isAfter(range.newest()))
+                && (endDate == null || !endDate.isBefore(range.oldest()));
+    }
+}
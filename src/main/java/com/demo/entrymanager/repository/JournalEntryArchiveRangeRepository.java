@@ -0,0 +1,31 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntryArchiveRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JournalEntryArchiveRangeRepository extends JpaRepository<JournalEntryArchiveRange, Long> {
+
+    @Query("select new com.demo.entrymanager.repository.DraftedDateRange(r.oldestDraftedDate, r.newestDraftedDate) " +
+            "from JournalEntryArchiveRange r where r.id = :id")
+    Optional<DraftedDateRange> findDraftedDateRange(@Param("id") long id);
+
+    // the dates are never null, the row is only written with the range of entries about to be archived
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into journal_entry_archive_range r " +
+            "using (values (cast(:id as bigint), cast(:oldest as timestamp), cast(:newest as timestamp))) v(id, oldest, newest) " +
+            "on r.id = v.id " +
+            "when matched then update set oldest_drafted_date = least(r.oldest_drafted_date, v.oldest), " +
+            "newest_drafted_date = greatest(r.newest_drafted_date, v.newest) " +
+            "when not matched then insert (id, oldest_drafted_date, newest_drafted_date) values (v.id, v.oldest, v.newest)")
+    void widen(@Param("id") long id, @Param("oldest") LocalDateTime oldest, @Param("newest") LocalDateTime newest);
+}
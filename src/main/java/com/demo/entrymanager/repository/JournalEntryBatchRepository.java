@@ -0,0 +1,9 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntry;
+
+import java.util.List;
+
+public interface JournalEntryBatchRepository {
+    List<JournalEntry> saveAllInBatches(List<JournalEntry> journalEntries);
+}
@@ -0,0 +1,72 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntryCounter;
+import com.demo.entrymanager.model.JournalEntryCounterId;
+import com.demo.entrymanager.model.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Repository
+public interface JournalEntryCounterRepository extends JpaRepository<JournalEntryCounter, JournalEntryCounterId> {
+
+    @Query("select coalesce(sum(c.entries), 0) from JournalEntryCounter c where c.id.status = :status")
+    long sumByStatus(@Param("status") Status status);
+
+    @Query("select coalesce(sum(c.entries), 0) from JournalEntryCounter c where c.id.status = :status and c.id.accountantId = :accountantId")
+    long sumByStatusAndAccountantId(@Param("status") Status status, @Param("accountantId") long accountantId);
+
+    /**
+     * Adds the delta to a random shard of the counter: every creation moves the same DRAFT counter, on a single row
+     * the concurrent creations would wait for each other's commit.
+     */
+    default void addToCount(final String status, final long accountantId, final long delta) {
+        addToShard(status, accountantId, ThreadLocalRandom.current().nextInt(JournalEntryCounterId.SHARDS), delta);
+    }
+
+    // upsert, so the first entry of a status, accountant and shard creates its counter
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into journal_entry_counter c " +
+            "using (values (cast(:status as varchar(255)), cast(:accountantId as bigint), cast(:shard as int), cast(:delta as bigint))) " +
+            "v(status, accountant_id, shard, delta) " +
+            "on c.status = v.status and c.accountant_id = v.accountant_id and c.shard = v.shard " +
+            "when matched then update set c.entries = c.entries + v.delta " +
+            "when not matched then insert (status, accountant_id, shard, entries) values (v.status, v.accountant_id, v.shard, v.delta)")
+    void addToShard(@Param("status") String status, @Param("accountantId") long accountantId, @Param("shard") int shard,
+                    @Param("delta") long delta);
+
+    /**
+     * Recounts the journal entries, archived ones included, and fixes the counters that drifted from them.
+     * The correction goes to shard 0, which takes whatever the other shards of its pair do not hold.
+     *
+     * @return the number of counters that were corrected or created.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into journal_entry_counter c " +
+            "using (select v.status, v.accountant_id, 0 shard, v.entries - coalesce(o.entries, 0) entries from " +
+            "(select status, coalesce(assigned_accountant_id, 0) accountant_id, count(*) entries from " +
+            "(select status, assigned_accountant_id from journal_entry " +
+            "union all select status, assigned_accountant_id from archived_journal_entry) j " +
+            "group by status, coalesce(assigned_accountant_id, 0)) v " +
+            "left join (select status, accountant_id, sum(entries) entries from journal_entry_counter where shard <> 0 " +
+            "group by status, accountant_id) o on o.status = v.status and o.accountant_id = v.accountant_id) s " +
+            "on c.status = s.status and c.accountant_id = s.accountant_id and c.shard = s.shard " +
+            "when matched and c.entries <> s.entries then update set c.entries = s.entries " +
+            "when not matched and s.entries <> 0 then insert (status, accountant_id, shard, entries) values (s.status, s.accountant_id, s.shard, s.entries)")
+    int reconcileCounts();
+
+    /**
+     * Zeroes all the shards of the status and accountant pairs that no journal entry has anymore.
+     *
+     * @return the number of counters that were corrected.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "update journal_entry_counter c set entries = 0 where c.entries <> 0 and not exists " +
+            "(select 1 from journal_entry j where j.status = c.status and coalesce(j.assigned_accountant_id, 0) = c.accountant_id) " +
+            "and not exists (select 1 from archived_journal_entry a where a.status = c.status and coalesce(a.assigned_accountant_id, 0) = c.accountant_id)")
+    int reconcileStaleCounts();
+}
@@ -0,0 +1,12 @@
+package com.demo.entrymanager.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in the (draftedDate, id) ordering of journal entries,
+ * the next page starts right after the entry identified by it.
+ */
+public record JournalEntryCursor(
+        LocalDateTime draftedDate,
+        Long id) {
+}
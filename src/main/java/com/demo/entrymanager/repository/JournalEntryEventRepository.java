@@ -0,0 +1,20 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntryEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JournalEntryEventRepository extends JpaRepository<JournalEntryEvent, Long> {
+
+    @Query("select e from JournalEntryEvent e where e.feedPosition > :since order by e.feedPosition")
+    List<JournalEntryEvent> findAfter(@Param("since") long since, Limit limit);
+
+    @Query("select e from JournalEntryEvent e where e.feedPosition is null order by e.id")
+    List<JournalEntryEvent> findUnpositioned(Limit limit);
+}
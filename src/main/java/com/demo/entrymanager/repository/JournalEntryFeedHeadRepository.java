@@ -0,0 +1,24 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntryFeedHead;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalEntryFeedHeadRepository extends JpaRepository<JournalEntryFeedHead, Long> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into journal_entry_feed_head h " +
+            "using (values (cast(:id as bigint))) v(id) on h.id = v.id " +
+            "when not matched then insert (id, feed_position) values (v.id, 0)")
+    void createIfMissing(@Param("id") long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from JournalEntryFeedHead h where h.id = :id")
+    JournalEntryFeedHead findForUpdate(@Param("id") long id);
+}
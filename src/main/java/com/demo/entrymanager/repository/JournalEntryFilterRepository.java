@@ -1,12 +1,45 @@
 package com.demo.entrymanager.repository;
 
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
 import com.demo.entrymanager.model.JournalEntry;
 import com.demo.entrymanager.model.Status;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Filters over the journal entries and, when the status and drafted date filters can match them, the archived ones.
+ */
 public interface JournalEntryFilterRepository {
     List<JournalEntry> findWithFilters(List<Status> statuses, LocalDateTime startDate,
                                        LocalDateTime endDate, String assignedAccountant);
+
+    List<JournalEntry> findWithFilters(List<Status> statuses, LocalDateTime startDate,
+                                       LocalDateTime endDate, String assignedAccountant,
+                                       JournalEntryCursor after, int limit);
+
+    List<JournalEntryDto> findDtosWithFilters(List<Status> statuses, LocalDateTime startDate,
+                                              LocalDateTime endDate, String assignedAccountant,
+                                              JournalEntryCursor after, int limit);
+
+    /**
+     * Streams the matching entries in drafted date and ID order, the stream must be consumed and closed inside a transaction.
+     */
+    Stream<JournalEntryDto> streamDtosWithFilters(List<Status> statuses, LocalDateTime startDate,
+                                                  LocalDateTime endDate, String assignedAccountant);
+
+    JournalEntryStatsDto countWithFilters(List<Status> statuses, LocalDateTime startDate,
+                                          LocalDateTime endDate, String assignedAccountant,
+                                          DateBucket draftedDateBucket);
+
+    /**
+     * Ranks the entries whose scenario, review notes or approve notes match the text by relevance, most relevant first.
+     */
+    JournalEntrySearchPageDto searchWithText(String text, int offset, int limit);
+
+    Optional<JournalEntryDto> findArchivedDtoById(Long journalEntryId);
 }
@@ -1,10 +1,53 @@
 package com.demo.entrymanager.repository;
 
 import com.demo.entrymanager.model.JournalEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long>, JournalEntryFilterRepository {
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long>, JournalEntryFilterRepository, JournalEntryBatchRepository {
+
+    // transitions are guarded updates: they only apply when the entry is in the expected state. Each one selects the
+    // rows it changed from the delta table of the update, so the changed entries and their new state come back from
+    // the one statement, without reading or locking the targets first
+
+    @Query(nativeQuery = true, value = "select * from final table (update journal_entry set status = 'IN_REVIEW', " +
+            "assigned_accountant_id = :accountantId, version = version + 1 " +
+            "where id in (:ids) and status = 'DRAFT')")
+    List<JournalEntry> assignAccountantToAll(@Param("ids") Collection<Long> ids, @Param("accountantId") Long accountantId);
+
+    @Query(nativeQuery = true, value = "select * from final table (update journal_entry set status = 'REVIEWED', " +
+            "reviewed_date = :reviewedDate, version = version + 1 " +
+            "where id in (:ids) and status = 'IN_REVIEW' and trim(review_notes) <> '')")
+    List<JournalEntry> reviewAll(@Param("ids") Collection<Long> ids, @Param("reviewedDate") LocalDateTime reviewedDate);
+
+    @Query(nativeQuery = true, value = "select * from final table (update journal_entry set status = 'APPROVED', " +
+            "approved_date = :approvedDate, version = version + 1 " +
+            "where id in (:ids) and status = 'REVIEWED' and trim(approve_notes) <> '')")
+    List<JournalEntry> approveAll(@Param("ids") Collection<Long> ids, @Param("approvedDate") LocalDateTime approvedDate);
+
+    // approved entries are final, nothing changes them between the archival's copy and its delete
+
+    @Query("select j.id from JournalEntry j where j.status = com.demo.entrymanager.model.Status.APPROVED " +
+            "and j.approvedDate < :approvedBefore order by j.id")
+    List<Long> findArchivableIds(@Param("approvedBefore") LocalDateTime approvedBefore, Limit limit);
+
+    @Query("select a.id from ArchivedJournalEntry a where a.id in :ids")
+    List<Long> findArchivedIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.demo.entrymanager.repository.DraftedDateRange(min(j.draftedDate), max(j.draftedDate)) " +
+            "from JournalEntry j where j.id in :ids")
+    DraftedDateRange findDraftedDateRange(@Param("ids") Collection<Long> ids);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from JournalEntry j where j.id in :ids and j.status = com.demo.entrymanager.model.Status.APPROVED")
+    int deleteApproved(@Param("ids") Collection<Long> ids);
 }
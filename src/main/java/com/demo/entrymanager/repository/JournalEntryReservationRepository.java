@@ -0,0 +1,11 @@
+package com.demo.entrymanager.repository;
+
+import com.demo.entrymanager.model.JournalEntryReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface JournalEntryReservationRepository extends JpaRepository<JournalEntryReservation, UUID> {
+}
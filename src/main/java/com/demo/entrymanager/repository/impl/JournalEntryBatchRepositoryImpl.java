@@ -0,0 +1,35 @@
+package com.demo.entrymanager.repository.impl;
+
+import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.repository.JournalEntryBatchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class JournalEntryBatchRepositoryImpl implements JournalEntryBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${entrymanager.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    @Transactional
+    public List<JournalEntry> saveAllInBatches(final List<JournalEntry> journalEntries) {
+        for (int i = 0; i < journalEntries.size(); i++) {
+            entityManager.persist(journalEntries.get(i));
+            // flush each chunk as jdbc batches and detach it so the persistence context stays small
+            if ((i + 1) % chunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return journalEntries;
+    }
+}
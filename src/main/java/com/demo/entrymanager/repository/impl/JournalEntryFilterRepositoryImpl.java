@@ -1,39 +1,442 @@
 package com.demo.entrymanager.repository.impl;
 
+import com.demo.entrymanager.dto.AccountantCountDto;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
 import com.demo.entrymanager.model.*;
+import com.demo.entrymanager.repository.DateBucket;
+import com.demo.entrymanager.repository.JournalEntryArchiveBounds;
+import com.demo.entrymanager.repository.JournalEntryCursor;
 import com.demo.entrymanager.repository.JournalEntryFilterRepository;
+import com.demo.entrymanager.search.JournalEntrySearchHits;
+import com.demo.entrymanager.search.JournalEntrySearchIndex;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class JournalEntryFilterRepositoryImpl implements JournalEntryFilterRepository {
+    private static final String ID_FIELD = "id";
     private static final String STATUS_FIELD = "status";
+    private static final String SCENARIO_FIELD = "scenario";
     private static final String DRAFTED_DATE_FIELD = "draftedDate";
+    private static final String REVIEWED_DATE_FIELD = "reviewedDate";
+    private static final String APPROVED_DATE_FIELD = "approvedDate";
+    private static final String REVIEW_NOTES_FIELD = "reviewNotes";
+    private static final String APPROVE_NOTES_FIELD = "approveNotes";
+    private static final String VERSION_FIELD = "version";
     private static final String ASSIGNED_ACCOUNTANT_FIELD = "assignedAccountant";
     private static final String NAME_FIELD = "name";
+    private static final Comparator<JournalEntry> JOURNAL_ENTRY_ORDER = Comparator
+            .comparing(JournalEntry::getDraftedDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(JournalEntry::getId);
+    private static final Comparator<JournalEntryDto> JOURNAL_ENTRY_DTO_ORDER = Comparator
+            .comparing(JournalEntryDto::draftedDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(JournalEntryDto::id);
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JournalEntrySearchIndex journalEntrySearchIndex;
+
+    @Autowired
+    private JournalEntryArchiveBounds journalEntryArchiveBounds;
+
+    @Value("${entrymanager.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    // the live entries are always read before the archived ones: an entry archived in between is read twice, never
+    // missed, and the merges drop the second copy
+
     @Override
     public List<JournalEntry> findWithFilters(final List<Status> statuses, final LocalDateTime startDate,
                                               final LocalDateTime endDate, final String assignedAccountant) {
+        final List<JournalEntry> journalEntries = new ArrayList<>(
+                findEntitiesWithFilters(JournalEntry.class, statuses, startDate, endDate, assignedAccountant, null, null));
+        if (archiveMayMatch(statuses, startDate, endDate)) {
+            final Set<Long> journalEntryIds = new HashSet<>();
+            journalEntries.forEach(journalEntry -> journalEntryIds.add(journalEntry.getId()));
+            for (final ArchivedJournalEntry archivedJournalEntry : findEntitiesWithFilters(ArchivedJournalEntry.class,
+                    statuses, startDate, endDate, assignedAccountant, null, null)) {
+                if (!journalEntryIds.contains(archivedJournalEntry.getId())) {
+                    journalEntries.add(toJournalEntry(archivedJournalEntry));
+                }
+            }
+        }
+        return journalEntries;
+    }
+
+    @Override
+    public List<JournalEntry> findWithFilters(final List<Status> statuses, final LocalDateTime startDate,
+                                              final LocalDateTime endDate, final String assignedAccountant,
+                                              final JournalEntryCursor after, final int limit) {
+        final List<JournalEntry> journalEntries =
+                findEntitiesWithFilters(JournalEntry.class, statuses, startDate, endDate, assignedAccountant, after, limit);
+        if (!archiveMayMatch(statuses, startDate, endDate)) {
+            return journalEntries;
+        }
+        final List<JournalEntry> archivedJournalEntries = findEntitiesWithFilters(ArchivedJournalEntry.class,
+                statuses, startDate, endDate, assignedAccountant, after, limit).stream()
+                .map(this::toJournalEntry)
+                .toList();
+        return mergeOrdered(journalEntries.stream(), archivedJournalEntries.stream(), JOURNAL_ENTRY_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<JournalEntryDto> findDtosWithFilters(final List<Status> statuses, final LocalDateTime startDate,
+                                                     final LocalDateTime endDate, final String assignedAccountant,
+                                                     final JournalEntryCursor after, final int limit) {
+        final List<JournalEntryDto> journalEntryDtos = entityManager.createQuery(
+                        buildDtoQuery(JournalEntry.class, statuses, startDate, endDate, assignedAccountant, after))
+                .setMaxResults(limit)
+                .getResultList();
+        if (!archiveMayMatch(statuses, startDate, endDate)) {
+            return journalEntryDtos;
+        }
+        final List<JournalEntryDto> archivedJournalEntryDtos = entityManager.createQuery(
+                        buildDtoQuery(ArchivedJournalEntry.class, statuses, startDate, endDate, assignedAccountant, after))
+                .setMaxResults(limit)
+                .getResultList();
+        return mergeOrdered(journalEntryDtos.stream(), archivedJournalEntryDtos.stream(), JOURNAL_ENTRY_DTO_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<JournalEntryDto> streamDtosWithFilters(final List<Status> statuses, final LocalDateTime startDate,
+                                                         final LocalDateTime endDate, final String assignedAccountant) {
+        final Stream<JournalEntryDto> journalEntryDtos =
+                streamDtos(JournalEntry.class, statuses, startDate, endDate, assignedAccountant);
+        if (!archiveMayMatch(statuses, startDate, endDate)) {
+            return journalEntryDtos;
+        }
+        return mergeOrdered(journalEntryDtos,
+                streamDtos(ArchivedJournalEntry.class, statuses, startDate, endDate, assignedAccountant),
+                JOURNAL_ENTRY_DTO_ORDER);
+    }
+
+    @Override
+    public Optional<JournalEntryDto> findArchivedDtoById(final Long journalEntryId) {
+        return findDtosByIds(ArchivedJournalEntry.class, List.of(journalEntryId)).stream().findFirst();
+    }
+
+    // the archive only holds approved entries, its drafted date range tells if the date filters can reach it
+    private boolean archiveMayMatch(final List<Status> statuses, final LocalDateTime startDate, final LocalDateTime endDate) {
+        return (statuses == null || statuses.isEmpty() || statuses.contains(Status.APPROVED))
+                && journalEntryArchiveBounds.mayContain(startDate, endDate);
+    }
+
+    private <T> List<T> findEntitiesWithFilters(final Class<T> entityClass, final List<Status> statuses,
+                                                final LocalDateTime startDate, final LocalDateTime endDate,
+                                                final String assignedAccountant, final JournalEntryCursor after,
+                                                final Integer limit) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = cb.createQuery(entityClass);
+        final Root<T> root = query.from(entityClass);
+        final Join<T, Accountant> accountantJoin = fetchAccountant(root, assignedAccountant);
+
+        final List<Predicate> predicates = buildPredicates(statuses, startDate, endDate, assignedAccountant, root, accountantJoin, cb);
+        if (after != null) {
+            predicates.add(buildKeysetPredicate(after, root, cb));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        if (limit == null) {
+            return entityManager.createQuery(query).getResultList();
+        }
+        query.orderBy(cb.asc(root.get(DRAFTED_DATE_FIELD)), cb.asc(root.get(ID_FIELD)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private <T> Stream<JournalEntryDto> streamDtos(final Class<T> entityClass, final List<Status> statuses,
+                                                   final LocalDateTime startDate, final LocalDateTime endDate,
+                                                   final String assignedAccountant) {
+        // a forward-only cursor read fetch size rows at a time, the projected dtos are never attached to the persistence context
+        return entityManager.createQuery(buildDtoQuery(entityClass, statuses, startDate, endDate, assignedAccountant, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Merges two streams sorted in the same order into one sorted stream, lazily so two cursors can be merged
+     * without reading either of them ahead. Of two equal elements only the first one is kept.
+     */
+    private <T> Stream<T> mergeOrdered(final Stream<T> first, final Stream<T> second, final Comparator<? super T> order) {
+        final Iterator<T> firstIterator = first.iterator();
+        final Iterator<T> secondIterator = second.iterator();
+        final Iterator<T> merged = new Iterator<>() {
+            private T firstHead;
+            private T secondHead;
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return firstHead != null || secondHead != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T next;
+                if (secondHead == null || (firstHead != null && order.compare(firstHead, secondHead) <= 0)) {
+                    next = firstHead;
+                    if (secondHead != null && order.compare(firstHead, secondHead) == 0) {
+                        secondHead = null;
+                    }
+                    firstHead = null;
+                } else {
+                    next = secondHead;
+                    secondHead = null;
+                }
+                return next;
+            }
+
+            private void fill() {
+                if (firstHead == null && firstIterator.hasNext()) {
+                    firstHead = firstIterator.next();
+                }
+                if (secondHead == null && secondIterator.hasNext()) {
+                    secondHead = secondIterator.next();
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
+
+    // a detached copy, archived entries are not journal entries anymore and saving it again is never intended
+    private JournalEntry toJournalEntry(final ArchivedJournalEntry archivedJournalEntry) {
+        final JournalEntry journalEntry = new JournalEntry(archivedJournalEntry.getId(), archivedJournalEntry.getScenario(),
+                archivedJournalEntry.getStatus(), archivedJournalEntry.getDraftedDate());
+        journalEntry.setReviewedDate(archivedJournalEntry.getReviewedDate());
+        journalEntry.setApprovedDate(archivedJournalEntry.getApprovedDate());
+        journalEntry.setReviewNotes(archivedJournalEntry.getReviewNotes());
+        journalEntry.setApproveNotes(archivedJournalEntry.getApproveNotes());
+        journalEntry.setAssignedAccountant(archivedJournalEntry.getAssignedAccountant());
+        journalEntry.setVersion(archivedJournalEntry.getVersion());
+        return journalEntry;
+    }
+
+    private <T> CriteriaQuery<JournalEntryDto> buildDtoQuery(final Class<T> entityClass, final List<Status> statuses,
+                                                             final LocalDateTime startDate, final LocalDateTime endDate,
+                                                             final String assignedAccountant, final JournalEntryCursor after) {
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        final CriteriaQuery<JournalEntry> query = cb.createQuery(JournalEntry.class);
-        final Root<JournalEntry> journalEntryRoot = query.from(JournalEntry.class);
+        final CriteriaQuery<JournalEntryDto> query = cb.createQuery(JournalEntryDto.class);
+        final Root<T> journalEntryRoot = query.from(entityClass);
+        final Join<T, Accountant> accountantJoin = journalEntryRoot.join(ASSIGNED_ACCOUNTANT_FIELD, accountantJoinType(assignedAccountant));
 
-        final List<Predicate> predicates = buildPredicates(statuses, startDate, endDate, assignedAccountant, journalEntryRoot, cb);
+        final List<Predicate> predicates = buildPredicates(statuses, startDate, endDate, assignedAccountant, journalEntryRoot, accountantJoin, cb);
+        if (after != null) {
+            predicates.add(buildKeysetPredicate(after, journalEntryRoot, cb));
+        }
 
+        query.select(dtoSelection(journalEntryRoot, accountantJoin, cb));
         query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(journalEntryRoot.get(DRAFTED_DATE_FIELD)), cb.asc(journalEntryRoot.get(ID_FIELD)));
+
+        return query;
+    }
+
+    // selects straight into the dto, no managed entities are created for read-only listings
+    private CompoundSelection<JournalEntryDto> dtoSelection(final From<?, ?> journalEntryRoot,
+                                                            final Join<?, Accountant> accountantJoin,
+                                                            final CriteriaBuilder cb) {
+        return cb.construct(JournalEntryDto.class,
+                journalEntryRoot.get(ID_FIELD),
+                journalEntryRoot.get(SCENARIO_FIELD),
+                journalEntryRoot.get(STATUS_FIELD),
+                journalEntryRoot.get(DRAFTED_DATE_FIELD),
+                journalEntryRoot.get(REVIEWED_DATE_FIELD),
+                journalEntryRoot.get(APPROVED_DATE_FIELD),
+                accountantJoin.get(NAME_FIELD),
+                journalEntryRoot.get(REVIEW_NOTES_FIELD),
+                journalEntryRoot.get(APPROVE_NOTES_FIELD),
+                journalEntryRoot.get(VERSION_FIELD));
+    }
+
+    @Override
+    public JournalEntrySearchPageDto searchWithText(final String text, final int offset, final int limit) {
+        final JournalEntrySearchHits searchHits = journalEntrySearchIndex.search(text, offset, limit);
+        if (searchHits.journalEntryIds().isEmpty()) {
+            return new JournalEntrySearchPageDto(List.of(), searchHits.totalHits());
+        }
+
+        // the IN query returns the page in any order, the index decides the ranking
+        final Map<Long, JournalEntryDto> journalEntryDtosById = new HashMap<>();
+        for (final JournalEntryDto journalEntryDto : findDtosByIds(JournalEntry.class, searchHits.journalEntryIds())) {
+            journalEntryDtosById.put(journalEntryDto.id(), journalEntryDto);
+        }
+        // archived entries stay indexed
+        if (journalEntryDtosById.size() < searchHits.journalEntryIds().size()) {
+            final List<Long> missingIds = searchHits.journalEntryIds().stream()
+                    .filter(journalEntryId -> !journalEntryDtosById.containsKey(journalEntryId))
+                    .toList();
+            for (final JournalEntryDto journalEntryDto : findDtosByIds(ArchivedJournalEntry.class, missingIds)) {
+                journalEntryDtosById.put(journalEntryDto.id(), journalEntryDto);
+            }
+        }
+        final List<JournalEntryDto> rankedJournalEntryDtos = new ArrayList<>(journalEntryDtosById.size());
+        for (final Long journalEntryId : searchHits.journalEntryIds()) {
+            final JournalEntryDto journalEntryDto = journalEntryDtosById.get(journalEntryId);
+            if (journalEntryDto != null) {
+                rankedJournalEntryDtos.add(journalEntryDto);
+            }
+        }
+
+        return new JournalEntrySearchPageDto(rankedJournalEntryDtos, searchHits.totalHits());
+    }
+
+    private <T> List<JournalEntryDto> findDtosByIds(final Class<T> entityClass, final Collection<Long> journalEntryIds) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<JournalEntryDto> query = cb.createQuery(JournalEntryDto.class);
+        final Root<T> journalEntryRoot = query.from(entityClass);
+        final Join<T, Accountant> accountantJoin = journalEntryRoot.join(ASSIGNED_ACCOUNTANT_FIELD, JoinType.LEFT);
+        query.select(dtoSelection(journalEntryRoot, accountantJoin, cb));
+        query.where(journalEntryRoot.get(ID_FIELD).in(journalEntryIds));
 
         return entityManager.createQuery(query).getResultList();
     }
 
-    private List<Predicate> buildPredicates(List<Status> statuses, LocalDateTime startDate, LocalDateTime endDate, String assignedAccountant, Root<JournalEntry> journalEntryRoot, CriteriaBuilder cb) {
+    @Override
+    public JournalEntryStatsDto countWithFilters(final List<Status> statuses, final LocalDateTime startDate,
+                                                 final LocalDateTime endDate, final String assignedAccountant,
+                                                 final DateBucket draftedDateBucket) {
+        final boolean includeArchive = archiveMayMatch(statuses, startDate, endDate);
+        final Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        long total = 0;
+        for (final Tuple row : countGroupedBy(includeArchive, statuses, startDate, endDate, assignedAccountant,
+                (journalEntryRoot, accountantJoin) -> List.of(journalEntryRoot.get(STATUS_FIELD)))) {
+            final long count = row.get(1, Long.class);
+            byStatus.merge(row.get(0, Status.class), count, Long::sum);
+            total += count;
+        }
+
+        // grouped by accountant ID, accountant names are not unique and two accountants sharing one must not share a count
+        final Map<Long, AccountantCountDto> countsByAccountantId = new HashMap<>();
+        long unassigned = 0;
+        for (final Tuple row : countGroupedBy(includeArchive, statuses, startDate, endDate, assignedAccountant,
+                (journalEntryRoot, accountantJoin) -> List.of(accountantJoin.get(ID_FIELD), accountantJoin.get(NAME_FIELD)))) {
+            final Long accountantId = row.get(0, Long.class);
+            final long count = row.get(2, Long.class);
+            if (accountantId == null) {
+                unassigned += count;
+            } else {
+                countsByAccountantId.merge(accountantId, new AccountantCountDto(accountantId, row.get(1, String.class), count),
+                        (counted, archived) -> new AccountantCountDto(accountantId, counted.name(), counted.count() + archived.count()));
+            }
+        }
+        final List<AccountantCountDto> byAccountant = countsByAccountantId.values().stream()
+                .sorted(Comparator.comparing(AccountantCountDto::name).thenComparing(AccountantCountDto::id))
+                .toList();
+
+        final boolean byDay = draftedDateBucket == DateBucket.DAY;
+        final Map<LocalDate, Long> byDraftedDate = new TreeMap<>();
+        for (final Tuple row : countGroupedBy(includeArchive, statuses, startDate, endDate, assignedAccountant,
+                (journalEntryRoot, accountantJoin) -> draftedDateParts(journalEntryRoot, byDay))) {
+            final LocalDate bucket = LocalDate.of(row.get(0, Number.class).intValue(), row.get(1, Number.class).intValue(),
+                    byDay ? row.get(2, Number.class).intValue() : 1);
+            byDraftedDate.merge(bucket, row.get(byDay ? 3 : 2, Long.class), Long::sum);
+        }
+
+        return new JournalEntryStatsDto(total, byStatus, byAccountant, unassigned, byDraftedDate);
+    }
+
+    /**
+     * Counts the filtered entries grouped by the given expressions, selecting them followed by the row count. With the
+     * archive both tables are counted by one UNION ALL statement, which reads them from the same snapshot: an entry
+     * archived while the counts run is counted once, as the listing returns it once. A group can appear in the rows of
+     * both tables.
+     */
+    private List<Tuple> countGroupedBy(final boolean includeArchive, final List<Status> statuses, final LocalDateTime startDate,
+                                       final LocalDateTime endDate, final String assignedAccountant,
+                                       final BiFunction<From<?, ?>, Join<?, Accountant>, List<Expression<?>>> grouping) {
+        final HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = buildCountQuery(cb, JournalEntry.class, statuses, startDate, endDate, assignedAccountant, grouping);
+        if (!includeArchive) {
+            return entityManager.createQuery(query).getResultList();
+        }
+        final CriteriaQuery<Tuple> archiveQuery =
+                buildCountQuery(cb, ArchivedJournalEntry.class, statuses, startDate, endDate, assignedAccountant, grouping);
+
+        return entityManager.createQuery(cb.unionAll(query, archiveQuery)).getResultList();
+    }
+
+    private <T> CriteriaQuery<Tuple> buildCountQuery(final CriteriaBuilder cb, final Class<T> entityClass, final List<Status> statuses,
+                                                     final LocalDateTime startDate, final LocalDateTime endDate, final String assignedAccountant,
+                                                     final BiFunction<From<?, ?>, Join<?, Accountant>, List<Expression<?>>> grouping) {
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final Root<T> journalEntryRoot = query.from(entityClass);
+        final Join<T, Accountant> accountantJoin = journalEntryRoot.join(ASSIGNED_ACCOUNTANT_FIELD, accountantJoinType(assignedAccountant));
+
+        final List<Expression<?>> groupBy = grouping.apply(journalEntryRoot, accountantJoin);
+        final List<Selection<?>> selections = new ArrayList<>(groupBy);
+        selections.add(cb.count(journalEntryRoot));
+
+        query.multiselect(selections);
+        query.where(buildPredicates(statuses, startDate, endDate, assignedAccountant, journalEntryRoot, accountantJoin, cb).toArray(new Predicate[0]));
+        query.groupBy(groupBy);
+
+        return query;
+    }
+
+    private List<Expression<?>> draftedDateParts(final From<?, ?> journalEntryRoot, final boolean byDay) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final Expression<LocalDateTime> draftedDate = journalEntryRoot.get(DRAFTED_DATE_FIELD);
+        final List<Expression<?>> parts = new ArrayList<>();
+        parts.add(cb.function("year", Integer.class, draftedDate));
+        parts.add(cb.function("month", Integer.class, draftedDate));
+        if (byDay) {
+            parts.add(cb.function("day", Integer.class, draftedDate));
+        }
+        return parts;
+    }
+
+    // fetch join so the accountant is hydrated with the entry instead of one extra select per accountant
+    private <T> Join<T, Accountant> fetchAccountant(Root<T> journalEntryRoot, String assignedAccountant) {
+        return (Join<T, Accountant>) journalEntryRoot.<T, Accountant>fetch(ASSIGNED_ACCOUNTANT_FIELD, accountantJoinType(assignedAccountant));
+    }
+
+    // an entry without an accountant never matches a name filter, the inner join lets the database start from the
+    // accountant name index and reach the entries through the assigned accountant index instead of scanning them
+    private JoinType accountantJoinType(String assignedAccountant) {
+        return hasAccountantFilter(assignedAccountant) ? JoinType.INNER : JoinType.LEFT;
+    }
+
+    private boolean hasAccountantFilter(String assignedAccountant) {
+        return assignedAccountant != null && !assignedAccountant.trim().isEmpty();
+    }
+
+    private Predicate buildKeysetPredicate(JournalEntryCursor after, From<?, ?> journalEntryRoot, CriteriaBuilder cb) {
+        return cb.or(
+                cb.greaterThan(journalEntryRoot.get(DRAFTED_DATE_FIELD), after.draftedDate()),
+                cb.and(
+                        cb.equal(journalEntryRoot.get(DRAFTED_DATE_FIELD), after.draftedDate()),
+                        cb.greaterThan(journalEntryRoot.get(ID_FIELD), after.id())));
+    }
+
+    private List<Predicate> buildPredicates(List<Status> statuses, LocalDateTime startDate, LocalDateTime endDate, String assignedAccountant, From<?, ?> journalEntryRoot, Join<?, Accountant> accountantJoin, CriteriaBuilder cb) {
         final List<Predicate> predicates = new ArrayList<>();
         if(statuses != null && !statuses.isEmpty()){
             predicates.add(journalEntryRoot.get(STATUS_FIELD).in(statuses));
@@ -45,8 +448,7 @@ public class JournalEntryFilterRepositoryImpl implements JournalEntryFilterRepos
         }else if (endDate != null) {
             predicates.add(cb.lessThanOrEqualTo(journalEntryRoot.get(DRAFTED_DATE_FIELD), endDate));
         }
-        final Join<JournalEntry, Accountant> accountantJoin = journalEntryRoot.join(ASSIGNED_ACCOUNTANT_FIELD, JoinType.LEFT);
-        if (assignedAccountant != null && !assignedAccountant.trim().isEmpty()) {
+        if (hasAccountantFilter(assignedAccountant)) {
             predicates.add( cb.equal(accountantJoin.get(NAME_FIELD), assignedAccountant));
         }
         return predicates;
@@ -0,0 +1,6 @@
+package com.demo.entrymanager.search;
+
+import java.util.List;
+
+public record JournalEntrySearchHits(List<Long> journalEntryIds, long totalHits) {
+}
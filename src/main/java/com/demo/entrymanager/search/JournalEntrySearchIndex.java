@@ -0,0 +1,174 @@
+package com.demo.entrymanager.search;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory Lucene inverted index over the scenario, review notes and approve notes of the journal entries.
+ * Only the id is stored, the entries themselves are read from the database once the ranked ids are known.
+ * <p>
+ * The version of every indexed entry is kept next to the index, so a state older than the indexed one, e.g. a row
+ * of the startup load read before an update committed, never replaces it.
+ */
+@Component
+public class JournalEntrySearchIndex implements DisposableBean {
+    private static final String ID_FIELD = "id";
+    private static final String SCENARIO_FIELD = "scenario";
+    private static final String REVIEW_NOTES_FIELD = "reviewNotes";
+    private static final String APPROVE_NOTES_FIELD = "approveNotes";
+    private static final List<String> TEXT_FIELDS = List.of(SCENARIO_FIELD, REVIEW_NOTES_FIELD, APPROVE_NOTES_FIELD);
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    private final Map<Long, Long> indexedVersions = new ConcurrentHashMap<>();
+
+    public JournalEntrySearchIndex() {
+        try {
+            this.indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Indexes the entries once the current transaction commits, so rolled back changes never become searchable.
+     * Without a transaction they are indexed right away.
+     */
+    public void indexAfterCommit(final Collection<JournalEntryDto> journalEntryDtos) {
+        if (journalEntryDtos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index(journalEntryDtos);
+            return;
+        }
+        final List<JournalEntryDto> committedJournalEntryDtos = List.copyOf(journalEntryDtos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(committedJournalEntryDtos);
+            }
+        });
+    }
+
+    // synchronized so the version check and the document update of an entry cannot interleave with another writer's
+    public synchronized void index(final Collection<JournalEntryDto> journalEntryDtos) {
+        try {
+            for (final JournalEntryDto journalEntryDto : journalEntryDtos) {
+                if (isOlderThanIndexed(journalEntryDto)) {
+                    continue;
+                }
+                // replaces the previous version of the entry
+                indexWriter.updateDocument(new Term(ID_FIELD, journalEntryDto.id().toString()), toDocument(journalEntryDto));
+                if (journalEntryDto.version() != null) {
+                    indexedVersions.put(journalEntryDto.id(), journalEntryDto.version());
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isOlderThanIndexed(final JournalEntryDto journalEntryDto) {
+        final Long indexedVersion = indexedVersions.get(journalEntryDto.id());
+        return indexedVersion != null && journalEntryDto.version() != null && journalEntryDto.version() < indexedVersion;
+    }
+
+    public synchronized void clear() {
+        try {
+            indexWriter.deleteAll();
+            indexedVersions.clear();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ranks the entries matching any of the terms of the text by relevance (BM25) and returns the requested page of ids.
+     */
+    public JournalEntrySearchHits search(final String text, final int offset, final int limit) {
+        final Query query = buildQuery(text);
+        if (query == null) {
+            return new JournalEntrySearchHits(List.of(), 0);
+        }
+        try {
+            final IndexSearcher indexSearcher = searcherManager.acquire();
+            try {
+                final TopDocs topDocs = indexSearcher.search(query, offset + limit);
+                final StoredFields storedFields = indexSearcher.storedFields();
+                final List<Long> journalEntryIds = new ArrayList<>(limit);
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    journalEntryIds.add(Long.valueOf(storedFields.document(topDocs.scoreDocs[i].doc).get(ID_FIELD)));
+                }
+                return new JournalEntrySearchHits(journalEntryIds, topDocs.totalHits.value);
+            } finally {
+                searcherManager.release(indexSearcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query buildQuery(final String text) {
+        final QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        final BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean hasTerms = false;
+        for (final String field : TEXT_FIELDS) {
+            final Query fieldQuery = queryBuilder.createBooleanQuery(field, text, BooleanClause.Occur.SHOULD);
+            if (fieldQuery != null) {
+                query.add(fieldQuery, BooleanClause.Occur.SHOULD);
+                hasTerms = true;
+            }
+        }
+        return hasTerms ? query.build() : null;
+    }
+
+    private Document toDocument(final JournalEntryDto journalEntryDto) {
+        final Document document = new Document();
+        document.add(new StringField(ID_FIELD, journalEntryDto.id().toString(), Field.Store.YES));
+        addText(document, SCENARIO_FIELD, journalEntryDto.scenario());
+        addText(document, REVIEW_NOTES_FIELD, journalEntryDto.reviewNotes());
+        addText(document, APPROVE_NOTES_FIELD, journalEntryDto.approveNotes());
+        return document;
+    }
+
+    private void addText(final Document document, final String field, final String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.entrymanager.search;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.repository.JournalEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Builds the in-memory search index from the database at startup, from then on the service keeps it up to date.
+ * Requests are already served while it loads: the index starts empty and is not cleared, and a loaded row older
+ * than the state an update indexed in the meantime is skipped by the index.
+ */
+@Component
+public class JournalEntrySearchIndexLoader {
+    private final JournalEntryRepository journalEntryRepository;
+    private final JournalEntrySearchIndex journalEntrySearchIndex;
+
+    @Value("${entrymanager.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public JournalEntrySearchIndexLoader(JournalEntryRepository journalEntryRepository, JournalEntrySearchIndex journalEntrySearchIndex) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.journalEntrySearchIndex = journalEntrySearchIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<JournalEntryDto> journalEntryDtos = journalEntryRepository.streamDtosWithFilters(null, null, null, null)) {
+            final List<JournalEntryDto> chunk = new ArrayList<>(chunkSize);
+            final Iterator<JournalEntryDto> iterator = journalEntryDtos.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    journalEntrySearchIndex.index(chunk);
+                    chunk.clear();
+                }
+            }
+            journalEntrySearchIndex.index(chunk);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.entrymanager.service;
+
+import com.demo.entrymanager.repository.ArchivedJournalEntryRepository;
+import com.demo.entrymanager.repository.JournalEntryArchiveBounds;
+import com.demo.entrymanager.repository.JournalEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically moves the entries approved longer than the minimum age into the archive, one chunk per transaction.
+ * The filters read the archive only when their status and drafted date range can match archived entries.
+ */
+@Component
+public class JournalEntryArchiver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEntryArchiver.class);
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final ArchivedJournalEntryRepository archivedJournalEntryRepository;
+    private final JournalEntryArchiveBounds journalEntryArchiveBounds;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int chunkSize;
+
+    public JournalEntryArchiver(JournalEntryRepository journalEntryRepository,
+                                ArchivedJournalEntryRepository archivedJournalEntryRepository,
+                                JournalEntryArchiveBounds journalEntryArchiveBounds,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${entrymanager.archive.min-age:P90D}") Duration minAge,
+                                @Value("${entrymanager.batch.chunk-size:500}") int chunkSize) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.archivedJournalEntryRepository = archivedJournalEntryRepository;
+        this.journalEntryArchiveBounds = journalEntryArchiveBounds;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${entrymanager.archive.interval:PT1H}")
+    public void archive() {
+        final LocalDateTime approvedBefore = LocalDateTime.now().minus(minAge);
+        long archived = 0;
+        List<Long> journalEntryIds;
+        do {
+            journalEntryIds = journalEntryRepository.findArchivableIds(approvedBefore, Limit.of(chunkSize));
+            if (journalEntryIds.isEmpty()) {
+                break;
+            }
+            archived += archiveChunk(journalEntryIds);
+        } while (journalEntryIds.size() == chunkSize);
+        if (archived > 0) {
+            LOGGER.info("Archived {} journal entries approved before {}", archived, approvedBefore);
+        }
+    }
+
+    private int archiveChunk(final List<Long> journalEntryIds) {
+        // widened and committed before the move, a filter of any instance running while the chunk moves already reads the archive
+        transactionTemplate.executeWithoutResult(status ->
+                journalEntryArchiveBounds.include(journalEntryRepository.findDraftedDateRange(journalEntryIds)));
+        return transactionTemplate.execute(status -> {
+            archivedJournalEntryRepository.copyFromJournalEntries(journalEntryIds, LocalDateTime.now());
+            return journalEntryRepository.deleteApproved(journalEntryIds);
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package com.demo.entrymanager.service;
+
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
+import com.demo.entrymanager.dto.JournalEntryEventDto;
+import com.demo.entrymanager.model.JournalEntryEvent;
+import com.demo.entrymanager.model.JournalEntryFeedHead;
+import com.demo.entrymanager.repository.JournalEntryEventRepository;
+import com.demo.entrymanager.repository.JournalEntryFeedHeadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbox of the journal entry transitions: the events are appended in the transaction of the transition and
+ * read back in feed position order by the change feed consumers, which wait for new events instead of polling the list endpoint.
+ * <p>
+ * Event IDs are assigned at insert time while the events become visible at commit, so an event of a long transaction
+ * can commit after one with a higher ID. The cursor is therefore a feed position, given to the events only once they
+ * committed, under the lock of the feed head row: a position is never handed out below one a consumer could already
+ * have read.
+ */
+@Component
+public class JournalEntryChangeFeed implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEntryChangeFeed.class);
+
+    private final JournalEntryEventRepository journalEntryEventRepository;
+    private final JournalEntryFeedHeadRepository journalEntryFeedHeadRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService positionExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("journal-entry-feed").daemon().factory());
+    private final AtomicBoolean positioningRequested = new AtomicBoolean();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    @Value("${entrymanager.changes.poll-interval:PT0.5S}")
+    private Duration pollInterval;
+
+    @Value("${entrymanager.changes.max-wait:PT30S}")
+    private Duration maxWait;
+
+    @Value("${entrymanager.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public JournalEntryChangeFeed(JournalEntryEventRepository journalEntryEventRepository,
+                                  JournalEntryFeedHeadRepository journalEntryFeedHeadRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.journalEntryEventRepository = journalEntryEventRepository;
+        this.journalEntryFeedHeadRepository = journalEntryFeedHeadRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Saves the events with the current transaction and gives them their feed positions once it commits.
+     */
+    public void append(final List<JournalEntryEvent> journalEntryEvents) {
+        if (journalEntryEvents.isEmpty()) {
+            return;
+        }
+        journalEntryEventRepository.saveAll(journalEntryEvents);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestPositioning();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestPositioning();
+            }
+        });
+    }
+
+    // off the committing thread, the commits arriving while a run is queued are all covered by that run
+    private void requestPositioning() {
+        if (positioningRequested.compareAndSet(false, true)) {
+            positionExecutor.execute(() -> {
+                positioningRequested.set(false);
+                assignPositions();
+            });
+        }
+    }
+
+    /**
+     * Gives the committed events without a position the next feed positions, in ID order, and wakes up the waiting
+     * consumers. Also runs periodically for the events whose commit did not trigger it, e.g. when the instance
+     * stopped right after committing them.
+     */
+    @Scheduled(fixedDelayString = "${entrymanager.changes.position-interval:PT5S}")
+    public void assignPositions() {
+        try {
+            int positioned;
+            do {
+                positioned = transactionTemplate.execute(status -> assignPositionsChunk());
+                if (positioned > 0) {
+                    signalAppended();
+                }
+            } while (positioned == chunkSize);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not assign change feed positions, retrying on the next run", e);
+        }
+    }
+
+    // the head row lock is held until the commit, the next run only reads the events once these positions are visible
+    private int assignPositionsChunk() {
+        journalEntryFeedHeadRepository.createIfMissing(JournalEntryFeedHead.ID);
+        final JournalEntryFeedHead journalEntryFeedHead = journalEntryFeedHeadRepository.findForUpdate(JournalEntryFeedHead.ID);
+        final List<JournalEntryEvent> journalEntryEvents = journalEntryEventRepository.findUnpositioned(Limit.of(chunkSize));
+        long feedPosition = journalEntryFeedHead.getFeedPosition();
+        for (final JournalEntryEvent journalEntryEvent : journalEntryEvents) {
+            journalEntryEvent.setFeedPosition(++feedPosition);
+        }
+        journalEntryFeedHead.setFeedPosition(feedPosition);
+        return journalEntryEvents.size();
+    }
+
+    /**
+     * Returns the events after the cursor, waiting up to the given time for one to get its position.
+     * No transaction is held while waiting, each check is a short query on the feed position.
+     */
+    public JournalEntryChangesDto read(final long since, final int limit, final Duration wait) {
+        final long deadline = System.nanoTime() + (wait.compareTo(maxWait) > 0 ? maxWait : wait).toNanos();
+        while (true) {
+            final List<JournalEntryEvent> journalEntryEvents = journalEntryEventRepository.findAfter(since, Limit.of(limit));
+            final long remaining = deadline - System.nanoTime();
+            if (!journalEntryEvents.isEmpty() || remaining <= 0) {
+                return toChanges(since, journalEntryEvents);
+            }
+            if (!awaitAppended(Math.min(remaining, pollInterval.toNanos()))) {
+                return toChanges(since, List.of());
+            }
+        }
+    }
+
+    private JournalEntryChangesDto toChanges(final long since, final List<JournalEntryEvent> journalEntryEvents) {
+        final List<JournalEntryEventDto> journalEntryEventDtos = journalEntryEvents.stream()
+                .map(e -> new JournalEntryEventDto(e.getId(), e.getJournalEntryId(), e.getFromStatus(), e.getToStatus(),
+                        e.getOccurredAt(), e.getAccountantId()))
+                .toList();
+        final long cursor = journalEntryEvents.isEmpty() ? since : journalEntryEvents.get(journalEntryEvents.size() - 1).getFeedPosition();
+        return new JournalEntryChangesDto(journalEntryEventDtos, cursor);
+    }
+
+    // the timeout is capped by the poll interval, so events positioned by another instance are picked up without a signal
+    private boolean awaitAppended(final long timeoutNanos) {
+        lock.lock();
+        try {
+            appended.await(timeoutNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalAppended() {
+        lock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        positionExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo.entrymanager.service;
+
+import com.demo.entrymanager.repository.JournalEntryCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically recounts the journal entries and corrects the counters that drifted, e.g. after a bulk
+ * transition raced with another request or rows were changed outside the application.
+ * The first run happens at startup and creates the counters of the already existing entries.
+ */
+@Component
+public class JournalEntryCounterReconciler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEntryCounterReconciler.class);
+
+    private final JournalEntryCounterRepository journalEntryCounterRepository;
+
+    public JournalEntryCounterReconciler(JournalEntryCounterRepository journalEntryCounterRepository) {
+        this.journalEntryCounterRepository = journalEntryCounterRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${entrymanager.counters.reconcile-interval:PT10M}")
+    @Transactional
+    public void reconcile() {
+        final int corrected = journalEntryCounterRepository.reconcileCounts() + journalEntryCounterRepository.reconcileStaleCounts();
+        if (corrected > 0) {
+            LOGGER.warn("Corrected {} journal entry counters", corrected);
+        }
+    }
+}
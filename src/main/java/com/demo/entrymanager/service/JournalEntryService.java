@@ -1,9 +1,19 @@
 package com.demo.entrymanager.service;
 
 import com.demo.entrymanager.controller.FilterJournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryBatchResultDto;
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
 import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryPageDto;
+import com.demo.entrymanager.dto.JournalEntryPatchDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
 import com.demo.entrymanager.exception.*;
+import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.repository.DateBucket;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface JournalEntryService {
@@ -17,6 +27,15 @@ public interface JournalEntryService {
      */
     JournalEntryDto createJournalEntry(JournalEntryDto journalEntryDto);
 
+    /**
+     * Creates many journal entries at once, the valid ones are written with batched inserts.
+     * Entries missing the scenario are rejected per item instead of throwing MissingScenarioException.
+     *
+     * @param journalEntryDtos data to create the journal entries.
+     * @return the accepted and rejected entries reported per item, in the order they were submitted.
+     */
+    JournalEntryBatchResultDto createJournalEntries(List<JournalEntryDto> journalEntryDtos);
+
     /**
      * Assign an accountant to a journal entry.
      *
@@ -25,10 +44,22 @@ public interface JournalEntryService {
      * @return the updated journalEntryDto with the accountant assigned.
      * @throws InvalidJournalEntryStateException if the journal entry is not in the DRAFT state.
      * @throws JournalEntryNotFoundException if the journal entry with the provided ID is not found.
+     * @throws JournalEntryArchivedException if the journal entry with the provided ID is archived.
      * @throws AccountantNotFoundException is the accountant with the provided ID is not found.
+     * @throws JournalEntryTransitionConflictException if a concurrent transition changed the journal entry first.
      */
     JournalEntryDto assignAccountantToJournalEntry(Long journalEntryId, Long accountantId);
 
+    /**
+     * Assign an accountant to many journal entries, loading them with a single query and updating them with a single statement.
+     *
+     * @param journalEntryIds the IDs of the journal entries to which the accountant is to be assigned.
+     * @param accountantId the ID of the accountant to be assigned.
+     * @return the result per journal entry ID, rejected entries carry the reason (not found or not in the DRAFT state).
+     * @throws AccountantNotFoundException is the accountant with the provided ID is not found.
+     */
+    JournalEntryBatchResultDto assignAccountantToJournalEntries(List<Long> journalEntryIds, Long accountantId);
+
     /**
      * Reviews a journal entry.
      *
@@ -36,9 +67,19 @@ public interface JournalEntryService {
      * @return the updated journalEntryDto marked as REVIEWED.
      * @throws JournalEntryMissingReviewNotesException if the journal entry is missing the reviewers notes.
      * @throws JournalEntryNotFoundException if the journal entry with the provided ID is not found.
+     * @throws JournalEntryArchivedException if the journal entry with the provided ID is archived.
+     * @throws JournalEntryTransitionConflictException if a concurrent transition changed the journal entry first.
      */
     JournalEntryDto reviewJournalEntry(Long journalEntryId);
 
+    /**
+     * Reviews many journal entries, loading them with a single query and updating them with a single statement.
+     *
+     * @param journalEntryIds the IDs of the journal entries to be reviewed.
+     * @return the result per journal entry ID, rejected entries carry the same reason reviewJournalEntry would throw.
+     */
+    JournalEntryBatchResultDto reviewJournalEntries(List<Long> journalEntryIds);
+
     /**
      * Approves a journal entry.
      *
@@ -46,10 +87,40 @@ public interface JournalEntryService {
      * @return the updated journalEntryDto marked as APPROVED.
      * @throws JournalEntryMissingApproveNotesException if the journal entry is missing the approvers notes.
      * @throws JournalEntryNotFoundException if the journal entry with the provided ID is not found.
+     * @throws JournalEntryArchivedException if the journal entry with the provided ID is archived.
      * @throws InvalidJournalEntryStateException if the journal entry is not in the REVIEWED state.
+     * @throws JournalEntryTransitionConflictException if a concurrent transition changed the journal entry first.
      */
     JournalEntryDto approveJournalEntry(Long journalEntryId);
 
+    /**
+     * Approves many journal entries, loading them with a single query and updating them with a single statement.
+     *
+     * @param journalEntryIds the IDs of the journal entries to be approved.
+     * @return the result per journal entry ID, rejected entries carry the same reason approveJournalEntry would throw.
+     */
+    JournalEntryBatchResultDto approveJournalEntries(List<Long> journalEntryIds);
+
+    /**
+     * Counts the journal entries in a status, read from the counters maintained with every creation and transition.
+     *
+     * @param status the status of the journal entries to count.
+     * @param accountantId the id of the assigned accountant to count the entries of, null for all the entries in the status.
+     * @return the number of journal entries in the status (and assigned to the accountant).
+     */
+    long countJournalEntries(Status status, Long accountantId);
+
+    /**
+     * Reads the status transitions recorded after the cursor, in the order they committed. When there are none yet
+     * it waits for one up to the given number of seconds, so consumers can long-poll for the changes.
+     *
+     * @param since the cursor returned by the previous call, null to read from the first transition.
+     * @param limit the maximum number of transitions to return, null for the default.
+     * @param waitSeconds the maximum number of seconds to wait for a transition, null to return immediately.
+     * @return the transitions and the cursor to pass to the next call.
+     */
+    JournalEntryChangesDto getJournalEntryChanges(Long since, Integer limit, Integer waitSeconds);
+
     /**
      * Update an existing journal entry (only the .scenario details are updated at this point).
      *
@@ -57,10 +128,27 @@ public interface JournalEntryService {
      * @param journalEntryDto the data object containing the updated journal entry information.
      * @return the updated journalEntryDto.
      * @throws JournalEntryNotFoundException if the journal entry with the provided ID is not found.
+     * @throws JournalEntryArchivedException if the journal entry with the provided ID is archived.
      * @throws InvalidJournalEntryStateException if the journal entry is in the APPROVED state, the .scenario cannot be updated.
+     * @throws JournalEntryVersionMismatchException if the version of the data object is set and the journal entry has since been modified.
      */
     JournalEntryDto updateJournalEntry(Long journalEntryId, JournalEntryDto journalEntryDto);
 
+    /**
+     * Partially update an existing journal entry, only the non-null fields of the patch are applied.
+     * A patch that does not change anything is not written to the database.
+     *
+     * @param journalEntryId the id of the journal entry to be updated.
+     * @param journalEntryPatchDto the data object containing the fields to be changed.
+     * @return the updated journalEntryDto.
+     * @throws JournalEntryNotFoundException if the journal entry with the provided ID is not found.
+     * @throws JournalEntryArchivedException if the journal entry with the provided ID is archived.
+     * @throws MissingScenarioException if the patch sets a blank .scenario.
+     * @throws InvalidJournalEntryStateException if a patched field cannot be updated in the current state of the journal entry.
+     * @throws JournalEntryVersionMismatchException if the version of the patch is set and the journal entry has since been modified.
+     */
+    JournalEntryDto patchJournalEntry(Long journalEntryId, JournalEntryPatchDto journalEntryPatchDto);
+
     /**
      * Retrieves a journal entry by its ID.
      *
@@ -71,11 +159,49 @@ public interface JournalEntryService {
     JournalEntryDto getJournalEntryById(Long journalEntryId);
 
     /**
-     * Retrieves a list of journal entries based on the provided filter requirements.
+     * Retrieves a page of journal entries based on the provided filter requirements, ordered by drafted date and ID.
+     *
+     * @param filterJournalEntryDto the data containing the filter requirements.
+     * @param pageToken the continuation token returned with the previous page, null for the first page.
+     * @param pageSize the requested number of entries per page, null for the default (capped at the maximum page size).
+     * @return a page of JournalEntryDto objects matching the filter requirements and the token of the next page, if any.
+     * @throws InvalidDateRangeException if the drafted date of the filter is after the reviewed date.
+     * @throws InvalidPageTokenException if the page token is malformed.
+     */
+    JournalEntryPageDto getJournalEntries(FilterJournalEntryDto filterJournalEntryDto, String pageToken, Integer pageSize);
+
+    /**
+     * Counts the journal entries matching the provided filter requirements by status, by assigned accountant
+     * and by drafted date bucket.
+     *
+     * @param filterJournalEntryDto the data containing the filter requirements.
+     * @param draftedDateBucket the size of the drafted date buckets, null for days.
+     * @return the counts of the journal entries matching the filter requirements.
+     * @throws InvalidDateRangeException if the drafted date of the filter is after the reviewed date.
+     */
+    JournalEntryStatsDto getJournalEntryStats(FilterJournalEntryDto filterJournalEntryDto, DateBucket draftedDateBucket);
+
+    /**
+     * Searches the scenario, review notes and approve notes of the journal entries for the terms of the text,
+     * the most relevant entries first.
+     *
+     * @param text the text to search for.
+     * @param page the zero based page number, null for the first page.
+     * @param pageSize the maximum number of entries to return, null for the default.
+     * @return the page of matching journal entries and the total number of matches.
+     * @throws InvalidSearchQueryException if the text is missing or blank.
+     */
+    JournalEntrySearchPageDto searchJournalEntries(String text, Integer page, Integer pageSize);
+
+    /**
+     * Writes all the journal entries matching the provided filter requirements to the output stream, ordered by drafted
+     * date and ID. The entries are streamed from the database, so the memory used does not grow with the number of entries.
      *
      * @param filterJournalEntryDto the data containing the filter requirements.
-     * @return a list of JournalEntryDto objects matching the filter requirements.
+     * @param exportFormat the format of the written entries, one NDJSON object or CSV row per entry.
+     * @param outputStream the stream to write the entries to, it is flushed but not closed.
      * @throws InvalidDateRangeException if the drafted date of the filter is after the reviewed date.
+     * @throws IOException if writing to the output stream fails.
      */
-    List<JournalEntryDto> getJournalEntries(FilterJournalEntryDto filterJournalEntryDto);
+    void exportJournalEntries(FilterJournalEntryDto filterJournalEntryDto, ExportFormat exportFormat, OutputStream outputStream) throws IOException;
 }
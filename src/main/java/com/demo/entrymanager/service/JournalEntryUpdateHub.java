@@ -0,0 +1,237 @@
+package com.demo.entrymanager.service;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.exception.TooManySubscribersException;
+import com.demo.entrymanager.util.ErrorMessages;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fans the journal entry updates out to the Server-Sent Events subscribers of each entry.
+ * <p>
+ * Publishing never blocks on a client: every subscriber keeps only the latest pending state of its entry and
+ * a virtual thread sends it, so a slow client skips intermediate states instead of queueing them. The number
+ * of subscribers is capped. A subscriber that received nothing for the heartbeat interval is sent a comment line,
+ * which keeps proxies from dropping the quiet stream and unsubscribes a client that went away once the write fails.
+ */
+@Component
+public class JournalEntryUpdateHub implements DisposableBean {
+    static final String UPDATE_EVENT = "journalentry";
+    static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final Map<Long, Set<Subscriber>> subscribersByJournalEntryId = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${entrymanager.updates.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${entrymanager.updates.heartbeat-interval:PT30S}")
+    private Duration heartbeatInterval;
+
+    /**
+     * Subscribes to the updates of an entry, its current state is sent first. The subscriber is registered before the
+     * current state is read so no update committed in between is missed.
+     *
+     * @throws TooManySubscribersException if the maximum number of subscribers is reached.
+     */
+    public SseEmitter subscribe(final Long journalEntryId, final Supplier<JournalEntryDto> currentState) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException(ErrorMessages.TOO_MANY_SUBSCRIBERS);
+        }
+
+        // no async timeout, a healthy stream stays open and the heartbeats find the clients that went away
+        final Subscriber subscriber = new Subscriber(journalEntryId, new SseEmitter(0L));
+        // added inside compute, so an unsubscribe dropping the set of the entry cannot drop it under the new subscriber
+        subscribersByJournalEntryId.compute(journalEntryId, (id, subscribers) -> {
+            final Set<Subscriber> entrySubscribers = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            entrySubscribers.add(subscriber);
+            return entrySubscribers;
+        });
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+
+        try {
+            subscriber.offer(currentState.get());
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Publishes the entries once the current transaction commits, so rolled back changes are never pushed.
+     * Without a transaction they are published right away.
+     */
+    public void publishAfterCommit(final Collection<JournalEntryDto> journalEntryDtos) {
+        if (journalEntryDtos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(journalEntryDtos);
+            return;
+        }
+        final List<JournalEntryDto> committedJournalEntryDtos = List.copyOf(journalEntryDtos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(committedJournalEntryDtos);
+            }
+        });
+    }
+
+    private void publish(final Collection<JournalEntryDto> journalEntryDtos) {
+        for (final JournalEntryDto journalEntryDto : journalEntryDtos) {
+            final Set<Subscriber> subscribers = subscribersByJournalEntryId.get(journalEntryDto.id());
+            if (subscribers != null) {
+                subscribers.forEach(subscriber -> subscriber.offer(journalEntryDto));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${entrymanager.updates.sweep-interval:PT15S}")
+    public void sendHeartbeats() {
+        final long idleSince = System.nanoTime() - heartbeatInterval.toNanos();
+        for (final Set<Subscriber> subscribers : subscribersByJournalEntryId.values()) {
+            for (final Subscriber subscriber : subscribers) {
+                if (subscriber.lastActivity - idleSince < 0) {
+                    subscriber.offerHeartbeat();
+                }
+            }
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void close(final Subscriber subscriber) {
+        unsubscribe(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private void unsubscribe(final Subscriber subscriber) {
+        final AtomicBoolean removed = new AtomicBoolean();
+        subscribersByJournalEntryId.computeIfPresent(subscriber.journalEntryId, (id, subscribers) -> {
+            removed.set(subscribers.remove(subscriber));
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (removed.get()) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribersByJournalEntryId.values().forEach(subscribers -> subscribers.forEach(this::close));
+        deliveryExecutor.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final Long journalEntryId;
+        private final SseEmitter emitter;
+        private final AtomicReference<JournalEntryDto> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile long lastActivity = System.nanoTime();
+        private Long sentVersion;
+
+        private Subscriber(Long journalEntryId, SseEmitter emitter) {
+            this.journalEntryId = journalEntryId;
+            this.emitter = emitter;
+        }
+
+        private void offer(final JournalEntryDto journalEntryDto) {
+            pending.accumulateAndGet(journalEntryDto, (current, offered) -> isNewer(offered, current) ? offered : current);
+            startDrain();
+        }
+
+        // sent by the drain as well, a heartbeat never blocks the sweep on a slow client nor interleaves with a state
+        private void offerHeartbeat() {
+            heartbeatDue.set(true);
+            startDrain();
+        }
+
+        private void startDrain() {
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        // runs on one thread at a time per subscriber, so the states are sent in order
+        private void drain() {
+            while (true) {
+                final JournalEntryDto journalEntryDto = pending.getAndSet(null);
+                if (journalEntryDto != null) {
+                    if (isNewer(journalEntryDto, sentVersion) && !send(journalEntryDto)) {
+                        return;
+                    }
+                } else if (heartbeatDue.getAndSet(false)) {
+                    if (!sendEvent(SseEmitter.event().comment(HEARTBEAT_COMMENT))) {
+                        return;
+                    }
+                } else {
+                    draining.set(false);
+                    // an offer may have come in after the last read and seen the drain still running
+                    if ((pending.get() == null && !heartbeatDue.get()) || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private boolean send(final JournalEntryDto journalEntryDto) {
+            final boolean sent = sendEvent(SseEmitter.event()
+                    .name(UPDATE_EVENT)
+                    .id(String.valueOf(journalEntryDto.version()))
+                    .data(journalEntryDto, MediaType.APPLICATION_JSON));
+            if (sent) {
+                sentVersion = journalEntryDto.version();
+            }
+            return sent;
+        }
+
+        private boolean sendEvent(final SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                lastActivity = System.nanoTime();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter was completed
+                unsubscribe(this);
+                return false;
+            }
+        }
+
+        private boolean isNewer(final JournalEntryDto journalEntryDto, final JournalEntryDto current) {
+            return current == null || isNewer(journalEntryDto, current.version());
+        }
+
+        private boolean isNewer(final JournalEntryDto journalEntryDto, final Long version) {
+            return version == null || journalEntryDto.version() == null || journalEntryDto.version() > version;
+        }
+    }
+}
@@ -1,133 +1,421 @@
 package com.demo.entrymanager.service.impl;
 
 import com.demo.entrymanager.controller.FilterJournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryBatchItemDto;
+import com.demo.entrymanager.dto.JournalEntryBatchResultDto;
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
 import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryPageDto;
+import com.demo.entrymanager.dto.JournalEntryPatchDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
 import com.demo.entrymanager.exception.*;
 import com.demo.entrymanager.model.Accountant;
 import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.JournalEntryCounterId;
+import com.demo.entrymanager.model.JournalEntryEvent;
 import com.demo.entrymanager.model.Status;
 import com.demo.entrymanager.repository.AccountantRepository;
+import com.demo.entrymanager.repository.DateBucket;
+import com.demo.entrymanager.repository.JournalEntryCounterRepository;
+import com.demo.entrymanager.repository.JournalEntryCursor;
 import com.demo.entrymanager.repository.JournalEntryRepository;
+import com.demo.entrymanager.search.JournalEntrySearchIndex;
+import com.demo.entrymanager.service.ExportFormat;
+import com.demo.entrymanager.service.JournalEntryChangeFeed;
 import com.demo.entrymanager.service.JournalEntryService;
+import com.demo.entrymanager.service.JournalEntryUpdateHub;
 import com.demo.entrymanager.util.ErrorMessages;
+import com.demo.entrymanager.util.JournalEntryCsv;
+import com.demo.entrymanager.util.PageTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class JournalEntryServiceImpl implements JournalEntryService {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    public static final String JOURNAL_ENTRY_CACHE = "journalEntries";
+
     private JournalEntryRepository journalEntryRepository;
     private AccountantRepository accountantRepository;
-
-    public JournalEntryServiceImpl(JournalEntryRepository journalEntryRepository, AccountantRepository accountantRepository) {
+    private JournalEntryCounterRepository journalEntryCounterRepository;
+    private Cache journalEntryCache;
+    private ObjectMapper objectMapper;
+    private JournalEntrySearchIndex journalEntrySearchIndex;
+    private JournalEntryChangeFeed journalEntryChangeFeed;
+    private JournalEntryUpdateHub journalEntryUpdateHub;
+
+    public JournalEntryServiceImpl(JournalEntryRepository journalEntryRepository, AccountantRepository accountantRepository,
+                                   JournalEntryCounterRepository journalEntryCounterRepository, CacheManager cacheManager,
+                                   ObjectMapper objectMapper, JournalEntrySearchIndex journalEntrySearchIndex,
+                                   JournalEntryChangeFeed journalEntryChangeFeed, JournalEntryUpdateHub journalEntryUpdateHub) {
         this.journalEntryRepository = journalEntryRepository;
         this.accountantRepository = accountantRepository;
+        this.journalEntryCounterRepository = journalEntryCounterRepository;
+        this.objectMapper = objectMapper;
+        this.journalEntrySearchIndex = journalEntrySearchIndex;
+        this.journalEntryChangeFeed = journalEntryChangeFeed;
+        this.journalEntryUpdateHub = journalEntryUpdateHub;
+        this.journalEntryCache = cacheManager.getCache(JOURNAL_ENTRY_CACHE);
     }
 
     @Override
+    @Transactional
     public JournalEntryDto createJournalEntry(final JournalEntryDto journalEntryDto) {
-        if(journalEntryDto.scenario() == null || journalEntryDto.scenario().isBlank()){
+        if(isScenarioMissing(journalEntryDto)){
             throw  new MissingScenarioException(ErrorMessages.SCENARIO_MISSING);
         }
 
+        final JournalEntry savedJournalEntry = journalEntryRepository.save(newDraft(journalEntryDto));
+        addToCount(new JournalEntryCounterId(Status.DRAFT, JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID), 1);
+
+        final JournalEntryDto savedJournalEntryDto = toJournalEntryDto(savedJournalEntry);
+        journalEntrySearchIndex.indexAfterCommit(List.of(savedJournalEntryDto));
+
+        return savedJournalEntryDto;
+    }
+
+    @Override
+    @Transactional
+    public JournalEntryBatchResultDto createJournalEntries(final List<JournalEntryDto> journalEntryDtos) {
+        final List<JournalEntryBatchItemDto> items = new ArrayList<>(journalEntryDtos.size());
+        final List<Integer> draftIndexes = new ArrayList<>();
+        final List<JournalEntry> drafts = new ArrayList<>();
+
+        for (int i = 0; i < journalEntryDtos.size(); i++) {
+            final JournalEntryDto journalEntryDto = journalEntryDtos.get(i);
+            if (isScenarioMissing(journalEntryDto)) {
+                items.add(JournalEntryBatchItemDto.ofRejected(i, null, ErrorCode.MISSING_SCENARIO, ErrorMessages.SCENARIO_MISSING));
+            } else {
+                items.add(null);
+                draftIndexes.add(i);
+                drafts.add(newDraft(journalEntryDto));
+            }
+        }
+
+        final List<JournalEntry> savedJournalEntries = journalEntryRepository.saveAllInBatches(drafts);
+        addToCount(new JournalEntryCounterId(Status.DRAFT, JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID), savedJournalEntries.size());
+        final List<JournalEntryDto> savedJournalEntryDtos = new ArrayList<>(savedJournalEntries.size());
+        for (int i = 0; i < savedJournalEntries.size(); i++) {
+            final int index = draftIndexes.get(i);
+            final JournalEntryDto savedJournalEntryDto = toJournalEntryDto(savedJournalEntries.get(i));
+            savedJournalEntryDtos.add(savedJournalEntryDto);
+            items.set(index, JournalEntryBatchItemDto.ofAccepted(index, savedJournalEntryDto));
+        }
+        journalEntrySearchIndex.indexAfterCommit(savedJournalEntryDtos);
+
+        return JournalEntryBatchResultDto.of(items);
+    }
+
+    private boolean isScenarioMissing(final JournalEntryDto journalEntryDto) {
+        return journalEntryDto == null || journalEntryDto.scenario() == null || journalEntryDto.scenario().isBlank();
+    }
+
+    private JournalEntry newDraft(final JournalEntryDto journalEntryDto) {
         final JournalEntry newJournalEntry = new JournalEntry();
         newJournalEntry.setScenario(journalEntryDto.scenario());
         newJournalEntry.setStatus(Status.DRAFT);
         newJournalEntry.setDraftedDate(LocalDateTime.now());
-
-        final JournalEntry savedJournalEntry = journalEntryRepository.save(newJournalEntry);
-
-        return toJournalEntryDto(savedJournalEntry);
+        return newJournalEntry;
     }
 
     @Override
+    @Transactional
     public JournalEntryDto assignAccountantToJournalEntry(final Long journalEntryId, final Long accountantId) {
-        final JournalEntry journalEntry = getJournalEntry(journalEntryId);
-
-        if(journalEntry.getStatus() != Status.DRAFT){
-            throw new InvalidJournalEntryStateException(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_DRAFT_CAN_BE_ASSIGNED_TO_AN_ACCOUNTANT);
+        final Accountant accountant = accountantRepository.findById(accountantId).orElse(null);
+        if (accountant == null) {
+            // the entry related errors take precedence over the missing accountant
+            validateJournalEntryBeforeAssigning(getJournalEntry(journalEntryId));
+            throw new AccountantNotFoundException(ErrorMessages.ACCOUNTANT_NOT_FOUND);
         }
 
+        return transitionJournalEntry(journalEntryId,
+                Status.DRAFT,
+                this::validateJournalEntryBeforeAssigning,
+                ids -> journalEntryRepository.assignAccountantToAll(ids, accountant.getId()));
+    }
+
+    @Override
+    @Transactional
+    public JournalEntryBatchResultDto assignAccountantToJournalEntries(final List<Long> journalEntryIds, final Long accountantId) {
         final Accountant accountant = accountantRepository.findById(accountantId)
                 .orElseThrow(()->new AccountantNotFoundException(ErrorMessages.ACCOUNTANT_NOT_FOUND));
 
-        journalEntry.setStatus(Status.IN_REVIEW);
-        journalEntry.setAssignedAccountant(accountant);
+        return transitionJournalEntries(journalEntryIds,
+                Status.DRAFT,
+                this::validateJournalEntryBeforeAssigning,
+                ids -> journalEntryRepository.assignAccountantToAll(ids, accountant.getId()));
+    }
+
+    @Override
+    @Transactional
+    public JournalEntryDto reviewJournalEntry(final Long journalEntryId) {
+        final LocalDateTime reviewedDate = LocalDateTime.now();
 
-        final JournalEntry savedJournalEntry = journalEntryRepository.save(journalEntry);
+        return transitionJournalEntry(journalEntryId,
+                Status.IN_REVIEW,
+                this::validateJournalEntryBeforeReviewing,
+                ids -> journalEntryRepository.reviewAll(ids, reviewedDate));
+    }
 
-        return toJournalEntryDto(savedJournalEntry);
+    @Override
+    @Transactional
+    public JournalEntryBatchResultDto reviewJournalEntries(final List<Long> journalEntryIds) {
+        final LocalDateTime reviewedDate = LocalDateTime.now();
+
+        return transitionJournalEntries(journalEntryIds,
+                Status.IN_REVIEW,
+                this::validateJournalEntryBeforeReviewing,
+                ids -> journalEntryRepository.reviewAll(ids, reviewedDate));
     }
 
     @Override
-    public JournalEntryDto reviewJournalEntry(final Long journalEntryId) {
-        final JournalEntry journalEntry = getJournalEntry(journalEntryId);
+    @Transactional
+    public JournalEntryDto approveJournalEntry(final Long journalEntryId) {
+        final LocalDateTime approvedDate = LocalDateTime.now();
+
+        return transitionJournalEntry(journalEntryId,
+                Status.REVIEWED,
+                this::validateJournalEntryBeforeApproval,
+                ids -> journalEntryRepository.approveAll(ids, approvedDate));
+    }
 
-        validateJournalEntryBeforeReviewing(journalEntry);
+    @Override
+    @Transactional
+    public JournalEntryBatchResultDto approveJournalEntries(final List<Long> journalEntryIds) {
+        final LocalDateTime approvedDate = LocalDateTime.now();
+
+        return transitionJournalEntries(journalEntryIds,
+                Status.REVIEWED,
+                this::validateJournalEntryBeforeApproval,
+                ids -> journalEntryRepository.approveAll(ids, approvedDate));
+    }
+
+    /**
+     * Applies the transition to one entry with the guarded update alone. Only an update that changed nothing reads
+     * the entry, to tell a missing or archived entry and a broken rule apart; an entry that passes the rules on
+     * that read was changed concurrently.
+     */
+    private JournalEntryDto transitionJournalEntry(final Long journalEntryId,
+                                                   final Status sourceStatus,
+                                                   final Consumer<JournalEntry> validator,
+                                                   final Function<List<Long>, List<JournalEntry>> guardedUpdate) {
+        final JournalEntryDto journalEntryDto = applyTransition(List.of(journalEntryId), sourceStatus, guardedUpdate)
+                .get(journalEntryId);
+        if (journalEntryDto != null) {
+            return journalEntryDto;
+        }
+
+        validator.accept(getJournalEntry(journalEntryId));
+        throw new JournalEntryTransitionConflictException(ErrorMessages.JOURNAL_ENTRY_TRANSITION_CONFLICT);
+    }
+
+    /**
+     * Applies the transition to all the targets with one guarded bulk update, whose changed rows are the accepted
+     * entries. The other targets are read afterwards, without locks, and rejected with the single-entry rules.
+     */
+    private JournalEntryBatchResultDto transitionJournalEntries(final List<Long> journalEntryIds,
+                                                                final Status sourceStatus,
+                                                                final Consumer<JournalEntry> validator,
+                                                                final Function<List<Long>, List<JournalEntry>> guardedUpdate) {
+        final List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(journalEntryIds));
+        final Map<Long, JournalEntryDto> transitionedJournalEntryDtos = applyTransition(distinctIds, sourceStatus, guardedUpdate);
+
+        final List<Long> rejectedIds = distinctIds.stream().filter(id -> !transitionedJournalEntryDtos.containsKey(id)).toList();
+        final Map<Long, JournalEntry> rejectedJournalEntriesById = rejectedIds.isEmpty() ? Map.of()
+                : journalEntryRepository.findAllById(rejectedIds).stream()
+                        .collect(Collectors.toMap(JournalEntry::getId, Function.identity()));
+        final Set<Long> archivedIds = rejectedJournalEntriesById.size() < rejectedIds.size()
+                ? new HashSet<>(journalEntryRepository.findArchivedIds(rejectedIds.stream().filter(id -> !rejectedJournalEntriesById.containsKey(id)).toList()))
+                : Set.of();
+
+        final List<JournalEntryBatchItemDto> items = new ArrayList<>(distinctIds.size());
+        for (int i = 0; i < distinctIds.size(); i++) {
+            final Long journalEntryId = distinctIds.get(i);
+            final JournalEntryDto journalEntryDto = transitionedJournalEntryDtos.get(journalEntryId);
+            if (journalEntryDto != null) {
+                items.add(JournalEntryBatchItemDto.ofAccepted(i, journalEntryDto));
+                continue;
+            }
+            final JournalEntry journalEntry = rejectedJournalEntriesById.get(journalEntryId);
+            if (journalEntry == null) {
+                items.add(archivedIds.contains(journalEntryId)
+                        ? JournalEntryBatchItemDto.ofRejected(i, journalEntryId, ErrorCode.JOURNAL_ENTRY_ARCHIVED, ErrorMessages.JOURNAL_ENTRY_ARCHIVED)
+                        : JournalEntryBatchItemDto.ofRejected(i, journalEntryId, ErrorCode.JOURNAL_ENTRY_NOT_FOUND, ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                continue;
+            }
+            try {
+                validator.accept(journalEntry);
+                items.add(JournalEntryBatchItemDto.ofRejected(i, journalEntryId, ErrorCode.JOURNAL_ENTRY_TRANSITION_CONFLICT,
+                        ErrorMessages.JOURNAL_ENTRY_TRANSITION_CONFLICT));
+            } catch (InvalidJournalEntryStateException | JournalEntryMissingReviewNotesException | JournalEntryMissingApproveNotesException e) {
+                items.add(JournalEntryBatchItemDto.ofRejected(i, journalEntryId, e.getErrorCode(), e.getMessage()));
+            }
+        }
 
-        journalEntry.setStatus(Status.REVIEWED);
-        journalEntry.setReviewedDate(LocalDateTime.now());
+        return JournalEntryBatchResultDto.of(items);
+    }
 
-        final JournalEntry savedJournalEntry = journalEntryRepository.save(journalEntry);
+    /**
+     * Runs the guarded update on the targets and records the entries it changed, from the new state it returned:
+     * they are moved between counters, recorded as events, pushed and cached.
+     */
+    private Map<Long, JournalEntryDto> applyTransition(final List<Long> journalEntryIds,
+                                                      final Status sourceStatus,
+                                                      final Function<List<Long>, List<JournalEntry>> guardedUpdate) {
+        if (journalEntryIds.isEmpty()) {
+            return Map.of();
+        }
+        final List<JournalEntry> transitionedJournalEntries = guardedUpdate.apply(journalEntryIds);
+        if (transitionedJournalEntries.isEmpty()) {
+            return Map.of();
+        }
+
+        final Map<JournalEntryCounterId, Long> counterDeltas = new HashMap<>();
+        final List<JournalEntryEvent> journalEntryEvents = new ArrayList<>(transitionedJournalEntries.size());
+        final Map<Long, JournalEntryDto> transitionedJournalEntryDtos = new LinkedHashMap<>();
+        final LocalDateTime occurredAt = LocalDateTime.now();
+        for (final JournalEntry journalEntry : transitionedJournalEntries) {
+            final JournalEntryCounterId counterId = JournalEntryCounterId.of(journalEntry);
+            // drafts are never assigned, the assignment is what moves them out of DRAFT; the other transitions keep the accountant
+            final Long previousAccountantId = sourceStatus == Status.DRAFT ? JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID : counterId.getAccountantId();
+            counterDeltas.merge(new JournalEntryCounterId(sourceStatus, previousAccountantId), -1L, Long::sum);
+            counterDeltas.merge(counterId, 1L, Long::sum);
+            journalEntryEvents.add(JournalEntryEvent.of(journalEntry, sourceStatus, occurredAt));
+            transitionedJournalEntryDtos.put(journalEntry.getId(), toJournalEntryDto(journalEntry));
+        }
+        counterDeltas.forEach(this::addToCount);
+        journalEntryChangeFeed.append(journalEntryEvents);
+        final List<JournalEntryDto> journalEntryDtos = List.copyOf(transitionedJournalEntryDtos.values());
+        journalEntryUpdateHub.publishAfterCommit(journalEntryDtos);
+        cacheAfterCommit(journalEntryDtos);
+
+        return transitionedJournalEntryDtos;
+    }
 
-        return toJournalEntryDto(savedJournalEntry);
+    private void addToCount(final JournalEntryCounterId counterId, final long delta) {
+        if (delta != 0) {
+            journalEntryCounterRepository.addToCount(counterId.getStatus().name(), counterId.getAccountantId(), delta);
+        }
     }
 
     @Override
-    public JournalEntryDto approveJournalEntry(final Long journalEntryId) {
-        final JournalEntry journalEntry = getJournalEntry(journalEntryId);
+    public long countJournalEntries(final Status status, final Long accountantId) {
+        if (accountantId == null) {
+            return journalEntryCounterRepository.sumByStatus(status);
+        }
 
-        validateJournalEntryBeforeApproval(journalEntry);
+        return journalEntryCounterRepository.sumByStatusAndAccountantId(status, accountantId);
+    }
 
-        journalEntry.setStatus(Status.APPROVED);
-        journalEntry.setApprovedDate(LocalDateTime.now());
+    @Override
+    public JournalEntryChangesDto getJournalEntryChanges(final Long since, final Integer limit, final Integer waitSeconds) {
+        final long cursor = since == null ? 0 : Math.max(0, since);
+        final Duration wait = waitSeconds == null ? Duration.ZERO : Duration.ofSeconds(Math.max(0, waitSeconds));
 
-        final JournalEntry approvedJournalEntry = journalEntryRepository.save(journalEntry);
-        return toJournalEntryDto(approvedJournalEntry);
+        return journalEntryChangeFeed.read(cursor, resolvePageSize(limit), wait);
     }
 
     @Override
+    @Transactional
     public JournalEntryDto updateJournalEntry(final Long journalEntryId, final JournalEntryDto journalEntryDto) {
         final JournalEntry journalEntry = getJournalEntry(journalEntryId);
+        checkVersion(journalEntryDto.version(), journalEntry);
+
+        final boolean changed = applyUpdate(journalEntry, journalEntryDto.scenario(), journalEntryDto.reviewNotes());
+
+        return flushIfChanged(journalEntry, changed);
+    }
+
+    @Override
+    @Transactional
+    public JournalEntryDto patchJournalEntry(final Long journalEntryId, final JournalEntryPatchDto journalEntryPatchDto) {
+        final JournalEntry journalEntry = getJournalEntry(journalEntryId);
+        checkVersion(journalEntryPatchDto.version(), journalEntry);
+        if(journalEntryPatchDto.scenario() != null && journalEntryPatchDto.scenario().isBlank()){
+            throw new MissingScenarioException(ErrorMessages.SCENARIO_MISSING);
+        }
+
+        final String scenario = journalEntryPatchDto.scenario() != null ? journalEntryPatchDto.scenario() : journalEntry.getScenario();
+        final String reviewNotes = journalEntryPatchDto.reviewNotes() != null ? journalEntryPatchDto.reviewNotes() : journalEntry.getReviewNotes();
+        final boolean changed = applyUpdate(journalEntry, scenario, reviewNotes);
+
+        return flushIfChanged(journalEntry, changed);
+    }
+
+    private void checkVersion(final Long expectedVersion, final JournalEntry journalEntry) {
+        if (expectedVersion != null && !expectedVersion.equals(journalEntry.getVersion())) {
+            throw new JournalEntryVersionMismatchException(ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH);
+        }
+    }
+
+    private boolean applyUpdate(final JournalEntry journalEntry, final String scenario, final String reviewNotes) {
+        final boolean scenarioChanged = requiresUpdate(journalEntry.getScenario(), scenario);
+        final boolean reviewNotesChanged = requiresUpdate(journalEntry.getReviewNotes(), reviewNotes);
         final Status status = journalEntry.getStatus();
 
         if(status == Status.DRAFT){
-            if(requiresUpdate(journalEntry.getReviewNotes(), journalEntryDto.reviewNotes())){
+            if(reviewNotesChanged){
                 throw new InvalidJournalEntryStateException(ErrorMessages.REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW);
             }
 
-            journalEntry.setScenario(journalEntryDto.scenario());
+            journalEntry.setScenario(scenario);
         }else if(status == Status.IN_REVIEW){
-            if(requiresUpdate(journalEntry.getScenario(), journalEntryDto.scenario())){
+            if(scenarioChanged){
                 throw new InvalidJournalEntryStateException(ErrorMessages.SCENARIO_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_DRAFT);
             }
 
-            journalEntry.setReviewNotes(journalEntryDto.reviewNotes());
-        }else if(status == Status.REVIEWED){
-            if(requiresUpdate(journalEntry.getScenario(), journalEntryDto.scenario())){
+            journalEntry.setReviewNotes(reviewNotes);
+        }else if(status == Status.REVIEWED || status == Status.APPROVED){
+            if(scenarioChanged){
                 throw new InvalidJournalEntryStateException(ErrorMessages.SCENARIO_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_DRAFT);
             }
-            if(requiresUpdate(journalEntry.getReviewNotes(), journalEntryDto.reviewNotes())){
+            if(reviewNotesChanged){
                 throw new InvalidJournalEntryStateException(ErrorMessages.REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW);
             }
-
-        }else if(status == Status.APPROVED){
-            if(requiresUpdate(journalEntry.getScenario(), journalEntryDto.scenario())){
-                throw new InvalidJournalEntryStateException(ErrorMessages.SCENARIO_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_DRAFT);
-            }
-            if(requiresUpdate(journalEntry.getReviewNotes(), journalEntryDto.reviewNotes())){
-                throw new InvalidJournalEntryStateException(ErrorMessages.REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW);
-            }
-
-
         }
 
+        return scenarioChanged || reviewNotesChanged;
+    }
 
-        final JournalEntry updatedJournalEntry = journalEntryRepository.save(journalEntry);
+    private JournalEntryDto flushIfChanged(final JournalEntry journalEntry, final boolean changed) {
+        // the entry is managed, dirty checking writes it with no merge; an unchanged submission skips the write and
+        // @DynamicUpdate limits a changed one to the dirty columns. The flush bumps the version the response carries
+        if (changed) {
+            journalEntryRepository.flush();
+        }
+        final JournalEntryDto updatedJournalEntryDto = toJournalEntryDto(journalEntry);
+        if (changed) {
+            journalEntrySearchIndex.indexAfterCommit(List.of(updatedJournalEntryDto));
+            journalEntryUpdateHub.publishAfterCommit(List.of(updatedJournalEntryDto));
+            cacheAfterCommit(List.of(updatedJournalEntryDto));
+        }
 
-        return toJournalEntryDto(updatedJournalEntry);
+        return updatedJournalEntryDto;
     }
 
     private boolean requiresUpdate(String oldVal, String newVal) {
@@ -142,38 +430,156 @@ public class JournalEntryServiceImpl implements JournalEntryService {
 
     @Override
     public JournalEntryDto getJournalEntryById(final Long journalEntryId) {
-        final JournalEntry journalEntry = getJournalEntry(journalEntryId);
+        final JournalEntryDto cachedJournalEntryDto = journalEntryCache.get(journalEntryId, JournalEntryDto.class);
+        if (cachedJournalEntryDto != null) {
+            return cachedJournalEntryDto;
+        }
+
+        // an archived entry is approved and final, it can still be read
+        final JournalEntryDto journalEntryDto = journalEntryRepository.findById(journalEntryId)
+                .map(this::toJournalEntryDto)
+                .or(() -> journalEntryRepository.findArchivedDtoById(journalEntryId))
+                .orElseThrow(() -> new JournalEntryNotFoundException(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+
+        // a read that raced a write must not replace the committed state the write cached after it
+        final Cache.ValueWrapper cachedByWriter = journalEntryCache.putIfAbsent(journalEntryId, journalEntryDto);
 
-        return toJournalEntryDto(journalEntry);
+        return cachedByWriter != null ? (JournalEntryDto) cachedByWriter.get() : journalEntryDto;
     }
 
+    /**
+     * The writes only reach the cache once committed: a rollback leaves it untouched, and a read between
+     * the write and its commit cannot cache the old row after the new one.
+     */
+    private void cacheAfterCommit(final List<JournalEntryDto> journalEntryDtos) {
+        if (journalEntryDtos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journalEntryDtos.forEach(journalEntryDto -> journalEntryCache.put(journalEntryDto.id(), journalEntryDto));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                journalEntryDtos.forEach(journalEntryDto -> journalEntryCache.put(journalEntryDto.id(), journalEntryDto));
+            }
+        });
+    }
+
+
+    @Override
+    public JournalEntryPageDto getJournalEntries(final FilterJournalEntryDto filterJournalEntryDto,
+                                                 final String pageToken, final Integer pageSize) {
+        validateDateRange(filterJournalEntryDto);
+        final JournalEntryCursor after = pageToken == null || pageToken.isBlank() ? null : PageTokens.decode(pageToken);
+        final int limit = resolvePageSize(pageSize);
+
+        // one extra row tells whether another page follows without a separate count query
+        final List<JournalEntryDto> filteredJournalEntries = journalEntryRepository.findDtosWithFilters(
+                filterJournalEntryDto.status(),
+                filterJournalEntryDto.draftedDate(),
+                filterJournalEntryDto.reviewedDate(),
+                filterJournalEntryDto.assignedAccountant(),
+                after,
+                limit + 1
+        );
+
+        final boolean hasNextPage = filteredJournalEntries.size() > limit;
+        final List<JournalEntryDto> pageJournalEntries = hasNextPage ? filteredJournalEntries.subList(0, limit) : filteredJournalEntries;
+        final String nextPageToken = hasNextPage ? PageTokens.encode(toCursor(pageJournalEntries.get(limit - 1))) : null;
+
+        return new JournalEntryPageDto(pageJournalEntries, nextPageToken);
+    }
 
     @Override
-    public List<JournalEntryDto> getJournalEntries(final FilterJournalEntryDto filterJournalEntryDto) {
+    public JournalEntryStatsDto getJournalEntryStats(final FilterJournalEntryDto filterJournalEntryDto, final DateBucket draftedDateBucket) {
+        validateDateRange(filterJournalEntryDto);
+
+        return journalEntryRepository.countWithFilters(
+                filterJournalEntryDto.status(),
+                filterJournalEntryDto.draftedDate(),
+                filterJournalEntryDto.reviewedDate(),
+                filterJournalEntryDto.assignedAccountant(),
+                draftedDateBucket != null ? draftedDateBucket : DateBucket.DAY
+        );
+    }
+
+    @Override
+    public JournalEntrySearchPageDto searchJournalEntries(final String text, final Integer page, final Integer pageSize) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidSearchQueryException(ErrorMessages.SEARCH_TEXT_MISSING);
+        }
+        final int limit = resolvePageSize(pageSize);
+        // pages past the last match come back empty, the clamp only keeps offset + limit from overflowing
+        final int offset = page == null ? 0 : (int) Math.min((long) Math.max(0, page) * limit, Integer.MAX_VALUE - limit);
+
+        return journalEntryRepository.searchWithText(text, offset, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportJournalEntries(final FilterJournalEntryDto filterJournalEntryDto, final ExportFormat exportFormat,
+                                     final OutputStream outputStream) throws IOException {
+        validateDateRange(filterJournalEntryDto);
+
+        // the buffer bounds what is held before the rows reach the client, each row is written as soon as it is read
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (exportFormat == ExportFormat.CSV) {
+            writer.write(JournalEntryCsv.HEADER);
+        }
+        try (Stream<JournalEntryDto> journalEntryDtos = journalEntryRepository.streamDtosWithFilters(
+                filterJournalEntryDto.status(),
+                filterJournalEntryDto.draftedDate(),
+                filterJournalEntryDto.reviewedDate(),
+                filterJournalEntryDto.assignedAccountant())) {
+            final Iterator<JournalEntryDto> iterator = journalEntryDtos.iterator();
+            while (iterator.hasNext()) {
+                final JournalEntryDto journalEntryDto = iterator.next();
+                if (exportFormat == ExportFormat.CSV) {
+                    writer.write(JournalEntryCsv.toRow(journalEntryDto));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(journalEntryDto));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void validateDateRange(final FilterJournalEntryDto filterJournalEntryDto) {
         if(filterJournalEntryDto.draftedDate() != null
                 && filterJournalEntryDto.reviewedDate() != null
         && filterJournalEntryDto.draftedDate().isAfter(filterJournalEntryDto.reviewedDate())){
                 throw new InvalidDateRangeException(ErrorMessages.INVALID_DATE_RANGE);
         }
-        final List<JournalEntry> filteredJournalEntries = journalEntryRepository.findWithFilters(
-                filterJournalEntryDto.status(),
-                filterJournalEntryDto.draftedDate(),
-                filterJournalEntryDto.reviewedDate(),
-                filterJournalEntryDto.assignedAccountant()
-        );
+    }
 
-        return filteredJournalEntries
-                .stream()
-                .map(this::toJournalEntryDto)
-                .collect(Collectors.toList());
+    private int resolvePageSize(final Integer pageSize) {
+        if (pageSize == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    private JournalEntryCursor toCursor(final JournalEntryDto journalEntryDto) {
+        return new JournalEntryCursor(journalEntryDto.draftedDate(), journalEntryDto.id());
     }
 
     private JournalEntry getJournalEntry(final Long journalEntryId) {
         return journalEntryRepository.findById(journalEntryId)
-                .orElseThrow(() -> new JournalEntryNotFoundException(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                .orElseThrow(() -> missing(journalEntryId));
     }
 
-    private JournalEntryDto toJournalEntryDto(final JournalEntry journalEntry){
+    // only looked up once the live entry is missing, an archived entry can be read but not changed
+    private BusinessException missing(final Long journalEntryId) {
+        if (!journalEntryRepository.findArchivedIds(List.of(journalEntryId)).isEmpty()) {
+            return new JournalEntryArchivedException(ErrorMessages.JOURNAL_ENTRY_ARCHIVED);
+        }
+        return new JournalEntryNotFoundException(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND);
+    }
+
+    JournalEntryDto toJournalEntryDto(final JournalEntry journalEntry){
         return new JournalEntryDto(
                 journalEntry.getId(),
                 journalEntry.getScenario(),
@@ -183,10 +589,17 @@ public class JournalEntryServiceImpl implements JournalEntryService {
                 journalEntry.getApprovedDate(),
                 journalEntry.getAssignedAccountant() != null ? journalEntry.getAssignedAccountant().getName() : null,
                 journalEntry.getReviewNotes(),
-                journalEntry.getApproveNotes()
+                journalEntry.getApproveNotes(),
+                journalEntry.getVersion()
         );
     }
 
+    private void validateJournalEntryBeforeAssigning(final JournalEntry journalEntry) {
+        if(journalEntry.getStatus() != Status.DRAFT){
+            throw new InvalidJournalEntryStateException(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_DRAFT_CAN_BE_ASSIGNED_TO_AN_ACCOUNTANT);
+        }
+    }
+
     private void validateJournalEntryBeforeReviewing(final JournalEntry journalEntry) {
         if(journalEntry.getStatus() != Status.IN_REVIEW){
             throw new InvalidJournalEntryStateException(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_IN_REVIEW_CAN_BE_REVIEWED);
@@ -0,0 +1,71 @@
+package com.demo.entrymanager.snapshot;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.repository.JournalEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes snapshots of all journal entries, archived ones included, for the analytics to scan with
+ * {@link JournalEntrySnapshotReader} instead of going through the API and the database.
+ * The schedule is off unless a cron expression is configured.
+ */
+@Component
+public class JournalEntrySnapshotExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalEntrySnapshotExporter.class);
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("'journal-entries-'yyyyMMdd'T'HHmmss'.jes'");
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final Path snapshotDirectory;
+    private final int blockRows;
+
+    public JournalEntrySnapshotExporter(JournalEntryRepository journalEntryRepository,
+                                        @Value("${entrymanager.snapshot.dir:data/snapshots}") Path snapshotDirectory,
+                                        @Value("${entrymanager.snapshot.block-rows:8192}") int blockRows) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.snapshotDirectory = snapshotDirectory;
+        this.blockRows = blockRows;
+    }
+
+    /**
+     * @return the written snapshot, it only appears under its name once it is complete.
+     */
+    @Scheduled(cron = "${entrymanager.snapshot.cron:-}")
+    @Transactional(readOnly = true)
+    public Path export() throws IOException {
+        Files.createDirectories(snapshotDirectory);
+        final Path snapshot = snapshotDirectory.resolve(LocalDateTime.now().format(FILE_NAME_FORMAT));
+        final Path partial = snapshotDirectory.resolve(snapshot.getFileName() + ".partial");
+        long rows = 0;
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partial));
+             JournalEntrySnapshotWriter snapshotWriter = new JournalEntrySnapshotWriter(outputStream, blockRows);
+             Stream<JournalEntryDto> journalEntryDtos = journalEntryRepository.streamDtosWithFilters(null, null, null, null)) {
+            final Iterator<JournalEntryDto> iterator = journalEntryDtos.iterator();
+            while (iterator.hasNext()) {
+                snapshotWriter.write(iterator.next());
+                rows++;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Wrote {} journal entries to {}", rows, snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,265 @@
+package com.demo.entrymanager.snapshot;
+
+import com.demo.entrymanager.controller.FilterJournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.model.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.demo.entrymanager.snapshot.SnapshotEncoding.*;
+
+/**
+ * Answers the journal entry filters against a snapshot file written by {@link JournalEntrySnapshotWriter}.
+ * <p>
+ * The filters have the meaning they have against the database: the statuses, the drafted date range given by the
+ * drafted and reviewed dates of the filter, and the accountant name. A block whose zone map is outside of one of
+ * them is never read, in a block that is read the text columns are only decompressed when some row matches.
+ */
+public class JournalEntrySnapshotReader implements Closeable {
+    private static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Status[] statusesByCode;
+    private final String[] accountantsByCode;
+    private final Map<Status, Integer> statusCodes = new HashMap<>();
+    private final Map<String, Integer> accountantCodes = new HashMap<>();
+    private final List<SnapshotBlock> blocks;
+
+    private JournalEntrySnapshotReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        final ByteBuffer header = read(0, Integer.BYTES + Short.BYTES);
+        if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not a journal entry snapshot");
+        }
+        final ByteBuffer trailer = read(channel.size() - TRAILER_BYTES, TRAILER_BYTES);
+        final long footerOffset = trailer.getLong();
+        if (trailer.getInt() != MAGIC) {
+            throw new IOException("Incomplete journal entry snapshot");
+        }
+        final ByteBuffer footer = read(footerOffset, (int) (channel.size() - TRAILER_BYTES - footerOffset));
+        final DataInputStream footerInput = new DataInputStream(new ByteArrayInputStream(footer.array()));
+
+        // the status codes of the file are resolved by name, the enum may have changed since it was written
+        statusesByCode = new Status[footerInput.readInt()];
+        for (int code = 0; code < statusesByCode.length; code++) {
+            statusesByCode[code] = Status.valueOf(footerInput.readUTF());
+            statusCodes.put(statusesByCode[code], code);
+        }
+        accountantsByCode = new String[footerInput.readInt() + 1];
+        for (int code = 1; code < accountantsByCode.length; code++) {
+            accountantsByCode[code] = footerInput.readUTF();
+            accountantCodes.put(accountantsByCode[code], code);
+        }
+        final int blockCount = footerInput.readInt();
+        blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            blocks.add(new SnapshotBlock(footerInput.readLong(), footerInput.readInt(), footerInput.readInt(),
+                    footerInput.readLong(), footerInput.readLong(), footerInput.readInt(), footerInput.readInt(),
+                    footerInput.readInt(), footerInput.readInt()));
+        }
+    }
+
+    public static JournalEntrySnapshotReader open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new JournalEntrySnapshotReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getRowCount() {
+        return blocks.stream().mapToLong(SnapshotBlock::rowCount).sum();
+    }
+
+    /**
+     * Streams the matching entries in the order they were written, the blocks are read as the stream is consumed.
+     */
+    public Stream<JournalEntryDto> find(final FilterJournalEntryDto filterJournalEntryDto) {
+        final SnapshotPredicate predicate = toPredicate(filterJournalEntryDto);
+        if (predicate == null) {
+            return Stream.empty();
+        }
+        return blocks.stream()
+                .filter(predicate::mayMatch)
+                .flatMap(block -> readBlock(block, predicate).stream());
+    }
+
+    // null when the filter names a status or an accountant that no entry of the file has
+    private SnapshotPredicate toPredicate(final FilterJournalEntryDto filterJournalEntryDto) {
+        BitSet statusCodeSet = null;
+        if (filterJournalEntryDto.status() != null && !filterJournalEntryDto.status().isEmpty()) {
+            statusCodeSet = new BitSet();
+            for (final Status status : filterJournalEntryDto.status()) {
+                final Integer code = statusCodes.get(status);
+                if (code != null) {
+                    statusCodeSet.set(code);
+                }
+            }
+            if (statusCodeSet.isEmpty()) {
+                return null;
+            }
+        }
+        Integer accountantCode = null;
+        final String assignedAccountant = filterJournalEntryDto.assignedAccountant();
+        if (assignedAccountant != null && !assignedAccountant.trim().isEmpty()) {
+            accountantCode = accountantCodes.get(assignedAccountant);
+            if (accountantCode == null) {
+                return null;
+            }
+        }
+        final LocalDateTime startDate = filterJournalEntryDto.draftedDate();
+        final LocalDateTime endDate = filterJournalEntryDto.reviewedDate();
+        return new SnapshotPredicate(statusCodeSet, accountantCode,
+                startDate == null ? null : toEpochNanosClamped(startDate),
+                endDate == null ? null : toEpochNanosClamped(endDate));
+    }
+
+    private List<JournalEntryDto> readBlock(final SnapshotBlock block, final SnapshotPredicate predicate) {
+        final ByteBuffer in;
+        try {
+            in = read(block.offset(), block.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final int rows = block.rowCount();
+
+        // the filtered columns are decoded first, the rest only when some row matched
+        final ByteBuffer ids = column(in);
+        final ByteBuffer statuses = column(in);
+        final ByteBuffer accountants = column(in);
+        final ByteBuffer draftedDates = column(in);
+        final int[] statusColumn = new int[rows];
+        final int[] accountantColumn = new int[rows];
+        final long[] draftedDateColumn = new long[rows];
+        final BitSet draftedDateSet = new BitSet(rows);
+        final BitSet matches = new BitSet(rows);
+        long previousDraftedDate = 0;
+        for (int row = 0; row < rows; row++) {
+            statusColumn[row] = statuses.get() & 0xFF;
+            accountantColumn[row] = (int) readVarLong(accountants);
+            final long encodedDraftedDate = readVarLong(draftedDates);
+            if (encodedDraftedDate != 0) {
+                previousDraftedDate += unZigZag(encodedDraftedDate - 1);
+                draftedDateColumn[row] = previousDraftedDate;
+                draftedDateSet.set(row);
+            }
+            if (predicate.matches(statusColumn[row], accountantColumn[row], draftedDateSet.get(row) ? previousDraftedDate : null)) {
+                matches.set(row);
+            }
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        final ByteBuffer reviewedDates = column(in);
+        final ByteBuffer approvedDates = column(in);
+        final ByteBuffer versions = column(in);
+        final ByteBuffer scenarios = compressedColumn(in);
+        final ByteBuffer reviewNotes = compressedColumn(in);
+        final ByteBuffer approveNotes = compressedColumn(in);
+        final List<JournalEntryDto> journalEntryDtos = new ArrayList<>(matches.cardinality());
+        long id = 0;
+        for (int row = 0; row < rows; row++) {
+            id += unZigZag(readVarLong(ids));
+            final LocalDateTime reviewedDate = readNullableDelta(reviewedDates, draftedDateColumn[row]);
+            final LocalDateTime approvedDate = readNullableDelta(approvedDates, draftedDateColumn[row]);
+            final long version = readVarLong(versions);
+            final String scenario = readText(scenarios);
+            final String reviewNote = readText(reviewNotes);
+            final String approveNote = readText(approveNotes);
+            if (matches.get(row)) {
+                journalEntryDtos.add(new JournalEntryDto(
+                        id,
+                        scenario,
+                        statusColumn[row] == NO_STATUS ? null : statusesByCode[statusColumn[row]],
+                        draftedDateSet.get(row) ? fromEpochNanos(draftedDateColumn[row]) : null,
+                        reviewedDate,
+                        approvedDate,
+                        accountantsByCode[accountantColumn[row]],
+                        reviewNote,
+                        approveNote,
+                        version == 0 ? null : unZigZag(version - 1)));
+            }
+        }
+        return journalEntryDtos;
+    }
+
+    private ByteBuffer column(final ByteBuffer in) {
+        final int length = (int) readVarLong(in);
+        final ByteBuffer column = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return column;
+    }
+
+    private ByteBuffer compressedColumn(final ByteBuffer in) {
+        final int rawLength = (int) readVarLong(in);
+        final ByteBuffer compressed = column(in);
+        final byte[] compressedBytes = new byte[compressed.remaining()];
+        compressed.get(compressedBytes);
+        return ByteBuffer.wrap(inflate(compressedBytes, rawLength));
+    }
+
+    private ByteBuffer read(final long offset, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the journal entry snapshot");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private record SnapshotPredicate(BitSet statusCodes, Integer accountantCode, Long startDate, Long endDate) {
+
+        boolean mayMatch(final SnapshotBlock block) {
+            if (statusCodes != null) {
+                final int next = statusCodes.nextSetBit(Math.max(0, block.minStatus()));
+                if (next < 0 || next > block.maxStatus()) {
+                    return false;
+                }
+            }
+            if (accountantCode != null && (accountantCode < block.minAccountant() || accountantCode > block.maxAccountant())) {
+                return false;
+            }
+            // a block without drafted dates has its min above its max and is skipped by any date bound
+            return (startDate == null || block.maxDraftedDate() >= startDate)
+                    && (endDate == null || block.minDraftedDate() <= endDate);
+        }
+
+        boolean matches(final int statusCode, final int accountant, final Long draftedDate) {
+            if (statusCodes != null && (statusCode == NO_STATUS || !statusCodes.get(statusCode))) {
+                return false;
+            }
+            if (accountantCode != null && accountant != accountantCode) {
+                return false;
+            }
+            if ((startDate != null || endDate != null) && draftedDate == null) {
+                return false;
+            }
+            return (startDate == null || draftedDate >= startDate) && (endDate == null || draftedDate <= endDate);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.demo.entrymanager.snapshot;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.model.Status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.demo.entrymanager.snapshot.SnapshotEncoding.*;
+
+/**
+ * Writes journal entries in the columnar snapshot format, one block per block size rows.
+ * <p>
+ * Each block stores its rows column by column: the ids and drafted dates as deltas to the previous row, the
+ * reviewed and approved dates as deltas to the row's drafted date, the status and accountant as dictionary codes
+ * and each text column compressed on its own. The footer holds the dictionaries and, per block, its position and
+ * zone map, so the file is written front to back in a single pass and the reader starts from its end.
+ * <p>
+ * Rows are expected in drafted date order, it keeps the deltas small and the zone maps of the blocks apart.
+ */
+public class JournalEntrySnapshotWriter implements Closeable {
+    private final OutputStream outputStream;
+    private final int blockRows;
+    private final List<JournalEntryDto> pendingRows;
+    private final Map<String, Integer> accountantCodes = new LinkedHashMap<>();
+    private final List<SnapshotBlock> blocks = new ArrayList<>();
+    private long position;
+
+    public JournalEntrySnapshotWriter(OutputStream outputStream, int blockRows) throws IOException {
+        this.outputStream = outputStream;
+        this.blockRows = blockRows;
+        this.pendingRows = new ArrayList<>(blockRows);
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final DataOutputStream headerOutput = new DataOutputStream(header);
+        headerOutput.writeInt(MAGIC);
+        headerOutput.writeShort(VERSION);
+        writeBytes(header.toByteArray());
+    }
+
+    public void write(final JournalEntryDto journalEntryDto) throws IOException {
+        pendingRows.add(journalEntryDto);
+        if (pendingRows.size() == blockRows) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (pendingRows.isEmpty()) {
+            return;
+        }
+        final ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        final ByteArrayOutputStream statuses = new ByteArrayOutputStream();
+        final ByteArrayOutputStream accountants = new ByteArrayOutputStream();
+        final ByteArrayOutputStream draftedDates = new ByteArrayOutputStream();
+        final ByteArrayOutputStream reviewedDates = new ByteArrayOutputStream();
+        final ByteArrayOutputStream approvedDates = new ByteArrayOutputStream();
+        final ByteArrayOutputStream versions = new ByteArrayOutputStream();
+        final ByteArrayOutputStream scenarios = new ByteArrayOutputStream();
+        final ByteArrayOutputStream reviewNotes = new ByteArrayOutputStream();
+        final ByteArrayOutputStream approveNotes = new ByteArrayOutputStream();
+
+        long previousId = 0;
+        long previousDraftedDate = 0;
+        long minDraftedDate = Long.MAX_VALUE;
+        long maxDraftedDate = Long.MIN_VALUE;
+        int minStatus = Integer.MAX_VALUE;
+        int maxStatus = Integer.MIN_VALUE;
+        int minAccountant = Integer.MAX_VALUE;
+        int maxAccountant = Integer.MIN_VALUE;
+        for (final JournalEntryDto journalEntryDto : pendingRows) {
+            writeVarLong(ids, zigZag(journalEntryDto.id() - previousId));
+            previousId = journalEntryDto.id();
+
+            final int statusCode = journalEntryDto.status() == null ? NO_STATUS : journalEntryDto.status().ordinal();
+            statuses.write(statusCode);
+            if (statusCode != NO_STATUS) {
+                minStatus = Math.min(minStatus, statusCode);
+                maxStatus = Math.max(maxStatus, statusCode);
+            }
+
+            final int accountantCode = journalEntryDto.assignedAccountant() == null ? UNASSIGNED
+                    : accountantCodes.computeIfAbsent(journalEntryDto.assignedAccountant(), name -> accountantCodes.size() + 1);
+            writeVarLong(accountants, accountantCode);
+            minAccountant = Math.min(minAccountant, accountantCode);
+            maxAccountant = Math.max(maxAccountant, accountantCode);
+
+            long draftedDate = 0;
+            if (journalEntryDto.draftedDate() != null) {
+                draftedDate = toEpochNanos(journalEntryDto.draftedDate());
+                minDraftedDate = Math.min(minDraftedDate, draftedDate);
+                maxDraftedDate = Math.max(maxDraftedDate, draftedDate);
+            }
+            writeNullableDelta(draftedDates, journalEntryDto.draftedDate(), previousDraftedDate);
+            if (journalEntryDto.draftedDate() != null) {
+                previousDraftedDate = draftedDate;
+            }
+            writeNullableDelta(reviewedDates, journalEntryDto.reviewedDate(), draftedDate);
+            writeNullableDelta(approvedDates, journalEntryDto.approvedDate(), draftedDate);
+            writeVarLong(versions, journalEntryDto.version() == null ? 0 : zigZag(journalEntryDto.version()) + 1);
+
+            writeText(scenarios, journalEntryDto.scenario());
+            writeText(reviewNotes, journalEntryDto.reviewNotes());
+            writeText(approveNotes, journalEntryDto.approveNotes());
+        }
+
+        final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        for (final ByteArrayOutputStream column : List.of(ids, statuses, accountants, draftedDates, reviewedDates, approvedDates, versions)) {
+            writeVarLong(block, column.size());
+            column.writeTo(block);
+        }
+        for (final ByteArrayOutputStream column : List.of(scenarios, reviewNotes, approveNotes)) {
+            final byte[] compressed = deflate(column.toByteArray());
+            writeVarLong(block, column.size());
+            writeVarLong(block, compressed.length);
+            block.writeBytes(compressed);
+        }
+
+        blocks.add(new SnapshotBlock(position, block.size(), pendingRows.size(), minDraftedDate, maxDraftedDate,
+                minStatus, maxStatus, minAccountant, maxAccountant));
+        writeBytes(block.toByteArray());
+        pendingRows.clear();
+    }
+
+    private void writeFooter() throws IOException {
+        final long footerOffset = position;
+        final ByteArrayOutputStream footer = new ByteArrayOutputStream();
+        final DataOutputStream footerOutput = new DataOutputStream(footer);
+        footerOutput.writeInt(Status.values().length);
+        for (final Status status : Status.values()) {
+            footerOutput.writeUTF(status.name());
+        }
+        footerOutput.writeInt(accountantCodes.size());
+        for (final String accountant : accountantCodes.keySet()) {
+            footerOutput.writeUTF(accountant);
+        }
+        footerOutput.writeInt(blocks.size());
+        for (final SnapshotBlock block : blocks) {
+            footerOutput.writeLong(block.offset());
+            footerOutput.writeInt(block.length());
+            footerOutput.writeInt(block.rowCount());
+            footerOutput.writeLong(block.minDraftedDate());
+            footerOutput.writeLong(block.maxDraftedDate());
+            footerOutput.writeInt(block.minStatus());
+            footerOutput.writeInt(block.maxStatus());
+            footerOutput.writeInt(block.minAccountant());
+            footerOutput.writeInt(block.maxAccountant());
+        }
+        footerOutput.writeLong(footerOffset);
+        footerOutput.writeInt(MAGIC);
+        writeBytes(footer.toByteArray());
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+        outputStream.write(bytes);
+        position += bytes.length;
+    }
+
+    /**
+     * Writes the last block and the footer, the output stream is flushed but left open.
+     */
+    @Override
+    public void close() throws IOException {
+        writeBlock();
+        writeFooter();
+        outputStream.flush();
+    }
+}
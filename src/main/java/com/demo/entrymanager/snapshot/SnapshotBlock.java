@@ -0,0 +1,17 @@
+package com.demo.entrymanager.snapshot;
+
+/**
+ * Position of a block in the snapshot file and its zone map: the lowest and highest drafted date, status code and
+ * accountant code of its rows. A filter outside of one of the ranges skips the block without reading it.
+ */
+record SnapshotBlock(
+        long offset,
+        int length,
+        int rowCount,
+        long minDraftedDate,
+        long maxDraftedDate,
+        int minStatus,
+        int maxStatus,
+        int minAccountant,
+        int maxAccountant) {
+}
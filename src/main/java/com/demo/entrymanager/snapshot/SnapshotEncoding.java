@@ -0,0 +1,137 @@
+package com.demo.entrymanager.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Value encodings shared by the snapshot writer and reader. Integers are written as unsigned varints, signed ones
+ * zigzag encoded first so small negative deltas stay small. A nullable value is shifted by one and 0 stands for null.
+ */
+final class SnapshotEncoding {
+    static final int MAGIC = 0x4A45534E;
+    static final short VERSION = 1;
+    static final int NO_STATUS = 0xFF;
+    static final int UNASSIGNED = 0;
+
+    private SnapshotEncoding() {
+    }
+
+    static void writeVarLong(final ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(final ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeNullableDelta(final ByteArrayOutputStream out, final LocalDateTime value, final long base) {
+        writeVarLong(out, value == null ? 0 : zigZag(toEpochNanos(value) - base) + 1);
+    }
+
+    static LocalDateTime readNullableDelta(final ByteBuffer in, final long base) {
+        final long encoded = readVarLong(in);
+        return encoded == 0 ? null : fromEpochNanos(unZigZag(encoded - 1) + base);
+    }
+
+    static void writeText(final ByteArrayOutputStream out, final String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    static String readText(final ByteBuffer in) {
+        final int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        final String value = new String(in.array(), in.arrayOffset() + in.position(), length - 1, StandardCharsets.UTF_8);
+        in.position(in.position() + length - 1);
+        return value;
+    }
+
+    // the drafted, reviewed and approved dates are local dates, UTC only serves as a fixed epoch for them
+    static long toEpochNanos(final LocalDateTime value) {
+        return Math.addExact(Math.multiplyExact(value.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), value.getNano());
+    }
+
+    // filter bounds past the range of the encoded dates (about 1677 to 2262) are clamped to it: every encoded date
+    // lies within it, so a clamped bound matches the same rows as the database comparison
+    static long toEpochNanosClamped(final LocalDateTime value) {
+        try {
+            return toEpochNanos(value);
+        } catch (ArithmeticException e) {
+            return value.toEpochSecond(ZoneOffset.UTC) < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    static LocalDateTime fromEpochNanos(final long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    static byte[] deflate(final byte[] raw) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(final byte[] compressed, final int rawLength) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final byte[] raw = new byte[rawLength];
+            int inflated = 0;
+            while (inflated < rawLength) {
+                final int read = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Truncated snapshot text column");
+                }
+                inflated += read;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt snapshot text column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.entrymanager.util;
+
+import com.demo.entrymanager.exception.JournalEntryVersionMismatchException;
+
+/**
+ * Strong ETags derived from the journal entry version column.
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String QUOTE = "\"";
+
+    public static String of(final Long version) {
+        return version == null ? null : QUOTE + version + QUOTE;
+    }
+
+    /**
+     * Compares an If-None-Match header with the ETag, weakly (RFC 9110, 13.1.2): a W/ prefix is ignored.
+     */
+    public static boolean matches(final String headerValue, final String eTag) {
+        if (headerValue == null || eTag == null) {
+            return false;
+        }
+        for (final String candidate : headerValue.split(",")) {
+            final String trimmedCandidate = candidate.trim();
+            if (ANY.equals(trimmedCandidate) || eTag.equals(stripWeakPrefix(trimmedCandidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version an If-Match header expects, null when any version is acceptable. If-Match uses the strong
+     * comparison (RFC 9110, 13.1.1), a weak ETag never matches and fails the precondition.
+     */
+    public static Long versionOf(final String ifMatch) {
+        final String trimmedIfMatch = ifMatch.trim();
+        if (ANY.equals(trimmedIfMatch)) {
+            return null;
+        }
+        if (trimmedIfMatch.startsWith(WEAK_PREFIX)) {
+            throw new JournalEntryVersionMismatchException(ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH);
+        }
+        try {
+            return Long.valueOf(trimmedIfMatch.replace(QUOTE, ""));
+        } catch (NumberFormatException e) {
+            throw new JournalEntryVersionMismatchException(ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH);
+        }
+    }
+
+    private static String stripWeakPrefix(final String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+
+    private ETags(){};
+
+}
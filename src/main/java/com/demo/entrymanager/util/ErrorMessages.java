@@ -14,6 +14,15 @@ public final class ErrorMessages {
     public static final String SCENARIO_MISSING = "Scenario is required during draft creation";
     public static final String SCENARIO_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_DRAFT = "Scenario can only be updated when journal entry status is DRAFT";
     public static final String REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW = "Review notes can only be updated when journal entry status is IN_REVIEW";
+    public static final String INVALID_PAGE_TOKEN = "Invalid page token";
+    public static final String JOURNAL_ENTRY_VERSION_MISMATCH = "Journal Entry was modified by another request";
+    public static final String SEARCH_TEXT_MISSING = "Search text is required";
+    public static final String TOO_MANY_SUBSCRIBERS = "Too many journal entry update subscriptions, retry later";
+    public static final String RESERVATION_NOT_FOUND = "Reservation not found";
+    public static final String JOURNAL_ENTRY_TRANSITION_CONFLICT = "Journal Entry was changed by a concurrent transition";
+    public static final String JOURNAL_ENTRY_ARCHIVED = "Journal Entry is archived and cannot be changed";
+    public static final String INGEST_QUEUE_FULL = "Too many journal entries waiting to be created, retry later";
+    public static final String INGEST_INTERRUPTED = "The ingest writer was stopped while the database was unavailable, resubmit the command";
 
     private ErrorMessages(){};
 
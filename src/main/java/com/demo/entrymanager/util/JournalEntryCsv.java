@@ -0,0 +1,46 @@
+package com.demo.entrymanager.util;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+
+import java.util.StringJoiner;
+
+/**
+ * Formats journal entries as RFC 4180 CSV rows, the values containing separators, quotes or line breaks are quoted.
+ */
+public final class JournalEntryCsv {
+
+    public static final String HEADER =
+            "id,scenario,status,draftedDate,reviewedDate,approvedDate,assignedAccountant,reviewNotes,approveNotes,version\r\n";
+
+    private static final String SEPARATOR = ",";
+    private static final String LINE_END = "\r\n";
+
+    public static String toRow(final JournalEntryDto journalEntryDto) {
+        final StringJoiner row = new StringJoiner(SEPARATOR, "", LINE_END);
+        row.add(value(journalEntryDto.id()));
+        row.add(value(journalEntryDto.scenario()));
+        row.add(value(journalEntryDto.status()));
+        row.add(value(journalEntryDto.draftedDate()));
+        row.add(value(journalEntryDto.reviewedDate()));
+        row.add(value(journalEntryDto.approvedDate()));
+        row.add(value(journalEntryDto.assignedAccountant()));
+        row.add(value(journalEntryDto.reviewNotes()));
+        row.add(value(journalEntryDto.approveNotes()));
+        row.add(value(journalEntryDto.version()));
+        return row.toString();
+    }
+
+    private static String value(final Object value) {
+        if (value == null) {
+            return "";
+        }
+        final String text = value.toString();
+        if (text.contains(SEPARATOR) || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private JournalEntryCsv(){};
+
+}
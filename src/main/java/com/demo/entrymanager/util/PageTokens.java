@@ -0,0 +1,40 @@
+package com.demo.entrymanager.util;
+
+import com.demo.entrymanager.exception.InvalidPageTokenException;
+import com.demo.entrymanager.repository.JournalEntryCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset cursor of the last returned entry into the opaque continuation token handed to clients.
+ */
+public final class PageTokens {
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(final JournalEntryCursor cursor) {
+        final String raw = cursor.draftedDate() + SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JournalEntryCursor decode(final String token) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidPageTokenException(ErrorMessages.INVALID_PAGE_TOKEN);
+            }
+            return new JournalEntryCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.valueOf(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageTokenException(ErrorMessages.INVALID_PAGE_TOKEN);
+        }
+    }
+
+    private PageTokens(){};
+
+}
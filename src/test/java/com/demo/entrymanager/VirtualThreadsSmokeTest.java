@@ -0,0 +1,85 @@
+package com.demo.entrymanager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Boots the application with virtual threads on, which is off by default: the request threads are no longer bounded,
+ * the fixed connection pool is what queues the requests that reach the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadsSmokeTest {
+    private static final int POOL_SIZE = 20;
+    // more concurrent requests than connections, the ones without a connection wait for one
+    private static final int CONCURRENT_REQUESTS = POOL_SIZE * 5;
+
+    @TempDir
+    static Path dataDirectory;
+
+    @DynamicPropertySource
+    static void dataDirectories(final DynamicPropertyRegistry registry) {
+        registry.add("entrymanager.ingest.wal-dir", () -> dataDirectory.resolve("wal").toString());
+        registry.add("entrymanager.snapshot.dir", () -> dataDirectory.resolve("snapshots").toString());
+    }
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void givenVirtualThreadsEnabled_whenStarting_thenRequestsRunOnVirtualThreadsWithTheFixedConnectionPool() throws SQLException {
+        //act
+        final TomcatWebServer webServer = (TomcatWebServer) applicationContext.getWebServer();
+        final HikariDataSource hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+
+        //assert
+        assertInstanceOf(VirtualThreadExecutor.class, webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+        assertEquals(POOL_SIZE, hikariDataSource.getMaximumPoolSize());
+        assertEquals(POOL_SIZE, hikariDataSource.getMinimumIdle());
+    }
+
+    @Test
+    void givenMoreConcurrentRequestsThanConnections_whenListingJournalEntries_thenEveryRequestSucceeds() throws InterruptedException, ExecutionException {
+        //act
+        final List<Future<HttpStatusCode>> statuses = new ArrayList<>(CONCURRENT_REQUESTS);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                statuses.add(clients.submit(() -> restTemplate.getForEntity("/api/v1/journalentries/stats", String.class).getStatusCode()));
+            }
+        }
+
+        //assert
+        for (final Future<HttpStatusCode> status : statuses) {
+            assertEquals(HttpStatus.OK, status.get());
+        }
+    }
+}
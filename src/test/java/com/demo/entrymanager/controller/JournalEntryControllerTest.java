@@ -1,26 +1,52 @@
 package com.demo.entrymanager.controller;
 
+import com.demo.entrymanager.dto.AccountantCountDto;
+import com.demo.entrymanager.dto.JournalEntryBatchItemDto;
+import com.demo.entrymanager.dto.JournalEntryBatchResultDto;
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
 import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryEventDto;
+import com.demo.entrymanager.dto.JournalEntryPageDto;
+import com.demo.entrymanager.dto.JournalEntryPatchDto;
+import com.demo.entrymanager.dto.JournalEntryReservationDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
 import com.demo.entrymanager.exception.*;
+import com.demo.entrymanager.ingest.IngestCommand;
+import com.demo.entrymanager.ingest.JournalEntryIngestQueue;
 import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.repository.DateBucket;
+import com.demo.entrymanager.service.ExportFormat;
 import com.demo.entrymanager.service.JournalEntryService;
+import com.demo.entrymanager.service.JournalEntryUpdateHub;
 import com.demo.entrymanager.util.ErrorMessages;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -37,11 +63,17 @@ public class JournalEntryControllerTest {
     @MockitoBean
     private JournalEntryService journalEntryService;
 
+    @MockitoBean
+    private JournalEntryUpdateHub journalEntryUpdateHub;
+
+    @MockitoBean
+    private JournalEntryIngestQueue journalEntryIngestQueue;
+
 
     @Test
     void givenInvalidDateRange_whenGettingJournalEntry_thenThrowException() throws Exception{
         //arrange
-        when(journalEntryService.getJournalEntries(any(FilterJournalEntryDto.class)))
+        when(journalEntryService.getJournalEntries(any(FilterJournalEntryDto.class), any(), any()))
                 .thenThrow(new InvalidDateRangeException(ErrorMessages.INVALID_DATE_RANGE));
 
         //act
@@ -52,7 +84,7 @@ public class JournalEntryControllerTest {
 
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.INVALID_DATE_RANGE));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.INVALID_DATE_RANGE));
     }
 
 
@@ -64,8 +96,8 @@ public class JournalEntryControllerTest {
         final JournalEntryDto journalEntryDto1 = new JournalEntryDto(1L, journalEntryScenario, Status.DRAFT, LocalDateTime.now(), null, null, accountantName, null, null);
         final JournalEntryDto journalEntryDto2 = new JournalEntryDto(2L, journalEntryScenario, Status.DRAFT, LocalDateTime.now().minusDays(2), null, null, accountantName, null, null);
         final List<JournalEntryDto> filteredJournalEntries = List.of(journalEntryDto1, journalEntryDto2);
-        when(journalEntryService.getJournalEntries(any(FilterJournalEntryDto.class)))
-                .thenReturn(filteredJournalEntries);
+        when(journalEntryService.getJournalEntries(any(FilterJournalEntryDto.class), any(), any()))
+                .thenReturn(new JournalEntryPageDto(filteredJournalEntries, null));
         //act
         mockMvc.perform(
                         get("/api/v1/journalentries")
@@ -76,9 +108,194 @@ public class JournalEntryControllerTest {
 
                 //assert
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(filteredJournalEntries.size())))
-                .andExpect(jsonPath("$[0].id").value(journalEntryDto1.id()))
-                .andExpect(jsonPath("$[1].id").value(journalEntryDto2.id()));
+                .andExpect(jsonPath("$.entries", hasSize(filteredJournalEntries.size())))
+                .andExpect(jsonPath("$.entries[0].id").value(journalEntryDto1.id()))
+                .andExpect(jsonPath("$.entries[1].id").value(journalEntryDto2.id()))
+                .andExpect(jsonPath("$.nextPageToken").doesNotExist());
+    }
+
+    @Test
+    void givenPageTokenAndPageSize_whenGettingJournalEntries_thenReturnPageWithNextPageToken() throws Exception{
+        //arrange
+        final String pageToken = "current-page-token";
+        final String nextPageToken = "next-page-token";
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(3L, "test scenario", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null);
+        when(journalEntryService.getJournalEntries(any(FilterJournalEntryDto.class), eq(pageToken), eq(1)))
+                .thenReturn(new JournalEntryPageDto(List.of(journalEntryDto), nextPageToken));
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries")
+                                .param("pageToken", pageToken)
+                                .param("pageSize", "1"))
+
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(1)))
+                .andExpect(jsonPath("$.entries[0].id").value(journalEntryDto.id()))
+                .andExpect(jsonPath("$.nextPageToken").value(nextPageToken));
+    }
+
+    @Test
+    void givenInvalidPageToken_whenGettingJournalEntries_thenThrowException() throws Exception{
+        //arrange
+        when(journalEntryService.getJournalEntries(any(FilterJournalEntryDto.class), any(), any()))
+                .thenThrow(new InvalidPageTokenException(ErrorMessages.INVALID_PAGE_TOKEN));
+
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries")
+                                .param("pageToken", "not-a-token"))
+
+                //assert
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.INVALID_PAGE_TOKEN));
+    }
+
+    @Test
+    void givenFilterCriteriaAndBucket_whenGettingJournalEntryStats_thenReturnCounts() throws Exception{
+        //arrange
+        final JournalEntryStatsDto journalEntryStats = new JournalEntryStatsDto(3,
+                Map.of(Status.DRAFT, 1L, Status.IN_REVIEW, 2L),
+                List.of(new AccountantCountDto(1L, "David Marshall", 2L)),
+                1,
+                Map.of(LocalDate.of(2025, 5, 1), 3L));
+        when(journalEntryService.getJournalEntryStats(any(FilterJournalEntryDto.class), eq(DateBucket.MONTH)))
+                .thenReturn(journalEntryStats);
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/stats")
+                                .param("status", "DRAFT,IN_REVIEW")
+                                .param("bucket", "MONTH"))
+
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.IN_REVIEW").value(2))
+                .andExpect(jsonPath("$.byAccountant[0].id").value(1))
+                .andExpect(jsonPath("$.byAccountant[0].name").value("David Marshall"))
+                .andExpect(jsonPath("$.byAccountant[0].count").value(2))
+                .andExpect(jsonPath("$.unassigned").value(1))
+                .andExpect(jsonPath("$.byDraftedDate['2025-05-01']").value(3));
+    }
+
+    @Test
+    void givenTooManySubscribers_whenSubscribingToJournalEntryUpdates_thenRejectWithTooManyRequests() throws Exception{
+        //arrange
+        when(journalEntryUpdateHub.subscribe(eq(1L), any()))
+                .thenThrow(new TooManySubscribersException(ErrorMessages.TOO_MANY_SUBSCRIBERS));
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/{id}/updates", 1L)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+
+                //assert
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.TOO_MANY_SUBSCRIBERS));
+    }
+
+    @Test
+    void givenCursor_whenGettingJournalEntryChanges_thenReturnEventsAndNextCursor() throws Exception{
+        //arrange
+        final JournalEntryEventDto journalEntryEventDto =
+                new JournalEntryEventDto(13L, 4L, Status.REVIEWED, Status.APPROVED, LocalDateTime.now(), 2L);
+        when(journalEntryService.getJournalEntryChanges(12L, null, 20))
+                .thenReturn(new JournalEntryChangesDto(List.of(journalEntryEventDto), 13L));
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/changes")
+                                .param("since", "12")
+                                .param("waitSeconds", "20"))
+
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].journalEntryId").value(4))
+                .andExpect(jsonPath("$.events[0].toStatus").value("APPROVED"))
+                .andExpect(jsonPath("$.cursor").value(13));
+    }
+
+    @Test
+    void givenSearchText_whenSearchingJournalEntries_thenReturnRankedEntries() throws Exception{
+        //arrange
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(4L, "test scenario", Status.REVIEWED, LocalDateTime.now(), null, null, null, "late invoice", null);
+        when(journalEntryService.searchJournalEntries("invoice", 1, 10))
+                .thenReturn(new JournalEntrySearchPageDto(List.of(journalEntryDto), 11));
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/search")
+                                .param("q", "invoice")
+                                .param("page", "1")
+                                .param("pageSize", "10"))
+
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries[0].id").value(4))
+                .andExpect(jsonPath("$.totalHits").value(11));
+    }
+
+    @Test
+    void givenMissingSearchText_whenSearchingJournalEntries_thenThrowException() throws Exception{
+        //arrange
+        when(journalEntryService.searchJournalEntries(isNull(), isNull(), isNull()))
+                .thenThrow(new InvalidSearchQueryException(ErrorMessages.SEARCH_TEXT_MISSING));
+        //act
+        mockMvc.perform(get("/api/v1/journalentries/search"))
+
+                //assert
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.SEARCH_TEXT_MISSING));
+    }
+
+    @Test
+    void givenCsvFormat_whenExportingJournalEntries_thenRowsAreWrittenAsCsvAttachment() throws Exception{
+        //arrange
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(journalEntryService).exportJournalEntries(any(FilterJournalEntryDto.class), eq(ExportFormat.CSV), any(OutputStream.class));
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/export")
+                                .param("status", "APPROVED")
+                                .param("format", "CSV"))
+
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"journalentries.csv\""))
+                .andExpect(content().string("id\r\n1\r\n"));
+    }
+
+    @Test
+    void givenStatusAndAccountant_whenCountingJournalEntries_thenReturnCount() throws Exception{
+        //arrange
+        when(journalEntryService.countJournalEntries(Status.IN_REVIEW, 7L)).thenReturn(12L);
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/counts")
+                                .param("status", "IN_REVIEW")
+                                .param("accountantId", "7"))
+
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(content().string("12"));
+    }
+
+    @Test
+    void givenInvalidDateRange_whenGettingJournalEntryStats_thenThrowException() throws Exception{
+        //arrange
+        when(journalEntryService.getJournalEntryStats(any(FilterJournalEntryDto.class), any()))
+                .thenThrow(new InvalidDateRangeException(ErrorMessages.INVALID_DATE_RANGE));
+
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/stats")
+                                .param("draftedDate", LocalDateTime.now().toString())
+                                .param("reviewedDate", LocalDateTime.now().minusDays(3).toString()))
+
+                //assert
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.INVALID_DATE_RANGE));
     }
 
     @Test
@@ -94,7 +311,8 @@ public class JournalEntryControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                .andExpect(jsonPath("$.code").value("JOURNAL_ENTRY_NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
     }
 
     @Test
@@ -129,7 +347,7 @@ public class JournalEntryControllerTest {
                         .content(objectMapper.writeValueAsString(journalEntryDto)))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.APPROVED_JOURNAL_ENTRIES_CAN_NOT_BE_UPDATED));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.APPROVED_JOURNAL_ENTRIES_CAN_NOT_BE_UPDATED));
     }
 
     @Test
@@ -147,7 +365,7 @@ public class JournalEntryControllerTest {
                                 .content(objectMapper.writeValueAsString(journalEntryDto)))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
     }
 
     @Test
@@ -181,7 +399,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_REVIEWED_CAN_BE_APPROVED));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_REVIEWED_CAN_BE_APPROVED));
     }
 
 
@@ -196,7 +414,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
         //assert
         .andExpect(status().isBadRequest())
-        .andExpect(content().string(ErrorMessages.APPROVE_NOTES_REQUIRED));
+        .andExpect(jsonPath("$.message").value(ErrorMessages.APPROVE_NOTES_REQUIRED));
     }
 
     @Test
@@ -210,7 +428,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
     }
 
     @Test
@@ -242,7 +460,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
         //assert
         .andExpect(status().isBadRequest())
-        .andExpect(content().string(ErrorMessages.REVIEW_NOTES_REQUIRED));
+        .andExpect(jsonPath("$.message").value(ErrorMessages.REVIEW_NOTES_REQUIRED));
     }
 
     @Test
@@ -256,7 +474,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
     }
 
     @Test
@@ -289,7 +507,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
     }
 
     @Test
@@ -304,7 +522,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.ACCOUNTANT_NOT_FOUND));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.ACCOUNTANT_NOT_FOUND));
     }
 
 
@@ -320,7 +538,7 @@ public class JournalEntryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_DRAFT_CAN_BE_ASSIGNED_TO_AN_ACCOUNTANT));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_DRAFT_CAN_BE_ASSIGNED_TO_AN_ACCOUNTANT));
     }
 
 
@@ -358,7 +576,7 @@ public class JournalEntryControllerTest {
                                 .content(objectMapper.writeValueAsString(journalEntryDto)))
                 //assert
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(ErrorMessages.SCENARIO_MISSING));
+                .andExpect(jsonPath("$.message").value(ErrorMessages.SCENARIO_MISSING));
     }
 
 
@@ -379,4 +597,292 @@ public class JournalEntryControllerTest {
                 .andExpect(jsonPath("$.scenario").value(journalEntryScenario))
                 .andExpect(jsonPath("$.status").value(Status.DRAFT.name()));
     }
+
+    @Test
+    void givenJournalEntryDetails_whenJournalEntryIsCreatedAsynchronously_thenReservationIsAccepted() throws Exception{
+        //arrange
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(null, "test scenario", null, null, null, null, null, null, null);
+        final UUID reservationId = UUID.randomUUID();
+        when(journalEntryIngestQueue.submitDraft(any(JournalEntryDto.class)))
+                .thenReturn(JournalEntryReservationDto.ofPending(reservationId));
+        //act
+        mockMvc.perform(
+                post("/api/v1/journalentries/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(journalEntryDto)))
+                //assert
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.reservationId").value(reservationId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void givenFullIngestQueue_whenJournalEntryIsCreatedAsynchronously_thenRejectWithTooManyRequests() throws Exception{
+        //arrange
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(null, "test scenario", null, null, null, null, null, null, null);
+        when(journalEntryIngestQueue.submitDraft(any(JournalEntryDto.class)))
+                .thenThrow(new IngestQueueFullException(ErrorMessages.INGEST_QUEUE_FULL));
+        //act
+        mockMvc.perform(
+                post("/api/v1/journalentries/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(journalEntryDto)))
+                //assert
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value("INGEST_QUEUE_FULL"));
+    }
+
+    @Test
+    void givenJournalEntryId_whenReviewIsRequestedAsynchronously_thenReservationIsAccepted() throws Exception{
+        //arrange
+        final UUID reservationId = UUID.randomUUID();
+        when(journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.REVIEW, 1L, null))
+                .thenReturn(JournalEntryReservationDto.ofPending(reservationId));
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/async/{id}/review", 1L))
+                //assert
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.reservationId").value(reservationId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void givenFullIngestQueue_whenAccountantAssignmentIsRequestedAsynchronously_thenRejectWithTooManyRequests() throws Exception{
+        //arrange
+        when(journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.ASSIGN_ACCOUNTANT, 1L, 2L))
+                .thenThrow(new IngestQueueFullException(ErrorMessages.INGEST_QUEUE_FULL));
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/async/{id}/accountant/{accountantId}", 1L, 2L))
+                //assert
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value("INGEST_QUEUE_FULL"));
+    }
+
+    @Test
+    void givenPersistedReservation_whenGettingReservation_thenJournalEntryIdIsReturned() throws Exception{
+        //arrange
+        final UUID reservationId = UUID.randomUUID();
+        when(journalEntryIngestQueue.getReservation(reservationId))
+                .thenReturn(JournalEntryReservationDto.ofPersisted(reservationId, 42L));
+        //act
+        mockMvc.perform(get("/api/v1/journalentries/reservations/{reservationId}", reservationId))
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PERSISTED"))
+                .andExpect(jsonPath("$.journalEntryId").value(42));
+    }
+
+    @Test
+    void givenJournalEntriesDetails_whenCreatedInBatch_thenAcceptedAndRejectedEntriesAreReported() throws Exception{
+        //arrange
+        final String journalEntryScenario = "On 27 May 2025, company XX purchased office supplies for $500 in cash.";
+        final List<JournalEntryDto> journalEntryDtos = List.of(
+                new JournalEntryDto(null, journalEntryScenario, null, null, null, null, null, null, null),
+                new JournalEntryDto(null, null, null, null, null, null, null, null, null));
+        final JournalEntryDto createdJournalEntryDto =
+                new JournalEntryDto(1L, journalEntryScenario, Status.DRAFT, LocalDateTime.now(), null, null, null, null, null);
+        when(journalEntryService.createJournalEntries(anyList()))
+                .thenReturn(JournalEntryBatchResultDto.of(List.of(
+                        JournalEntryBatchItemDto.ofAccepted(0, createdJournalEntryDto),
+                        JournalEntryBatchItemDto.ofRejected(1, null, ErrorCode.MISSING_SCENARIO, ErrorMessages.SCENARIO_MISSING))));
+        //act
+        mockMvc.perform(
+                        post("/api/v1/journalentries/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(journalEntryDtos)))
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.items[0].accepted").value(true))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].accepted").value(false))
+                .andExpect(jsonPath("$.items[1].error").value(ErrorMessages.SCENARIO_MISSING));
+    }
+
+    @Test
+    void givenJournalEntryIds_whenReviewedInBatch_thenResultIsReportedPerId() throws Exception{
+        //arrange
+        final List<Long> journalEntryIds = List.of(1L, Long.MAX_VALUE);
+        final JournalEntryDto reviewedJournalEntryDto =
+                new JournalEntryDto(1L, "test scenario", Status.REVIEWED, null, LocalDateTime.now(), null, null, "reviewed without comments", null);
+        when(journalEntryService.reviewJournalEntries(journalEntryIds))
+                .thenReturn(JournalEntryBatchResultDto.of(List.of(
+                        JournalEntryBatchItemDto.ofAccepted(0, reviewedJournalEntryDto),
+                        JournalEntryBatchItemDto.ofRejected(1, Long.MAX_VALUE, ErrorCode.JOURNAL_ENTRY_NOT_FOUND, ErrorMessages.JOURNAL_ENTRY_NOT_FOUND))));
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/batch/review")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(journalEntryIds)))
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.items[0].journalEntry.status").value(Status.REVIEWED.name()))
+                .andExpect(jsonPath("$.items[1].id").value(Long.MAX_VALUE))
+                .andExpect(jsonPath("$.items[1].errorCode").value("JOURNAL_ENTRY_NOT_FOUND"))
+                .andExpect(jsonPath("$.items[1].error").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+    }
+
+    @Test
+    void givenAccountantNonexistent_whenAssigningInBatch_thenThrowException() throws Exception{
+        //arrange
+        final Long accountantId = Long.MAX_VALUE;
+        when(journalEntryService.assignAccountantToJournalEntries(anyList(), eq(accountantId)))
+                .thenThrow(new AccountantNotFoundException(ErrorMessages.ACCOUNTANT_NOT_FOUND));
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/batch/accountant/{accountantId}", accountantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L))))
+                //assert
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.ACCOUNTANT_NOT_FOUND));
+    }
+
+    @Test
+    void givenJournalEntry_whenGettingIt_thenVersionIsReturnedAsETag() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, null, null, null, null, null, null, 3L);
+        when(journalEntryService.getJournalEntryById(journalEntryId)).thenReturn(journalEntryDto);
+        //act
+        mockMvc.perform(get("/api/v1/journalentries/{id}", journalEntryId))
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenGettingJournalEntry_thenNotModifiedIsReturned() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, null, null, null, null, null, null, 3L);
+        when(journalEntryService.getJournalEntryById(journalEntryId)).thenReturn(journalEntryDto);
+        //act
+        mockMvc.perform(get("/api/v1/journalentries/{id}", journalEntryId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                //assert
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void givenWeakIfNoneMatch_whenGettingJournalEntry_thenNotModifiedIsReturned() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, null, null, null, null, null, null, 3L);
+        when(journalEntryService.getJournalEntryById(journalEntryId)).thenReturn(journalEntryDto);
+        //act
+        mockMvc.perform(get("/api/v1/journalentries/{id}", journalEntryId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                //assert
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void givenIfMatch_whenUpdatingJournalEntry_thenExpectedVersionIsPassedToService() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, null, null, null, null, null, null);
+        final JournalEntryDto updatedJournalEntryDto = journalEntryDto.withVersion(4L);
+        when(journalEntryService.updateJournalEntry(journalEntryId, journalEntryDto.withVersion(3L)))
+                .thenReturn(updatedJournalEntryDto);
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/{id}", journalEntryId)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(journalEntryDto)))
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void givenStaleIfMatch_whenUpdatingJournalEntry_thenPreconditionFailed() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, null, null, null, null, null, null);
+        when(journalEntryService.updateJournalEntry(eq(journalEntryId), any(JournalEntryDto.class)))
+                .thenThrow(new JournalEntryVersionMismatchException(ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH));
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/{id}", journalEntryId)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(journalEntryDto)))
+                //assert
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("JOURNAL_ENTRY_VERSION_MISMATCH"))
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH));
+    }
+
+    @Test
+    void givenWeakIfMatch_whenUpdatingJournalEntry_thenPreconditionFailedWithoutCallingService() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, null, null, null, null, null, null);
+        //act
+        mockMvc.perform(put("/api/v1/journalentries/{id}", journalEntryId)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(journalEntryDto)))
+                //assert
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("JOURNAL_ENTRY_VERSION_MISMATCH"));
+        verifyNoInteractions(journalEntryService);
+    }
+
+    @Test
+    void givenWeakIfMatch_whenPatchingJournalEntry_thenPreconditionFailedWithoutCallingService() throws Exception{
+        //act
+        mockMvc.perform(patch("/api/v1/journalentries/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scenario\":\"test patched scenario\"}"))
+                //assert
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("JOURNAL_ENTRY_VERSION_MISMATCH"));
+        verifyNoInteractions(journalEntryService);
+    }
+
+    @Test
+    void givenSparsePatchWithIfMatch_whenPatchingJournalEntry_thenPatchWithExpectedVersionIsPassedToService() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        final String patchedScenario = "test patched scenario";
+        final JournalEntryDto patchedJournalEntryDto =
+                new JournalEntryDto(journalEntryId, patchedScenario, Status.DRAFT, null, null, null, null, null, null, 4L);
+        when(journalEntryService.patchJournalEntry(journalEntryId, new JournalEntryPatchDto(patchedScenario, null, 3L)))
+                .thenReturn(patchedJournalEntryDto);
+        //act
+        mockMvc.perform(patch("/api/v1/journalentries/{id}", journalEntryId)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scenario\":\"" + patchedScenario + "\"}"))
+                //assert
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.scenario").value(patchedScenario));
+    }
+
+    @Test
+    void givenPatchOfReviewNotesOnDraft_whenPatchingJournalEntry_thenThrowException() throws Exception{
+        //arrange
+        final Long journalEntryId = 1L;
+        when(journalEntryService.patchJournalEntry(eq(journalEntryId), any(JournalEntryPatchDto.class)))
+                .thenThrow(new InvalidJournalEntryStateException(ErrorMessages.REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW));
+        //act
+        mockMvc.perform(patch("/api/v1/journalentries/{id}", journalEntryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reviewNotes\":\"test review notes\"}"))
+                //assert
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW));
+    }
 }
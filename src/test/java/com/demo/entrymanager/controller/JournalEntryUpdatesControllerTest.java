@@ -0,0 +1,126 @@
+package com.demo.entrymanager.controller;
+
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.exception.JournalEntryNotFoundException;
+import com.demo.entrymanager.ingest.JournalEntryIngestQueue;
+import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.service.JournalEntryService;
+import com.demo.entrymanager.service.JournalEntryUpdateHub;
+import com.demo.entrymanager.util.ErrorMessages;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the /updates subscriptions through the real update hub, the streamed events and the rejections are the
+ * ones an EventSource client gets.
+ */
+@WebMvcTest(JournalEntryController.class)
+@Import(JournalEntryUpdateHub.class)
+@TestPropertySource(properties = {"entrymanager.updates.max-subscribers=1", "entrymanager.updates.heartbeat-interval=PT0S"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class JournalEntryUpdatesControllerTest {
+    private static final long VERIFY_TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JournalEntryUpdateHub journalEntryUpdateHub;
+
+    @MockitoBean
+    private JournalEntryService journalEntryService;
+
+    @MockitoBean
+    private JournalEntryIngestQueue journalEntryIngestQueue;
+
+    @Test
+    void givenJournalEntry_whenSubscribingToJournalEntryUpdates_thenCurrentStateAndHeartbeatsAreStreamed() throws Exception{
+        //arrange
+        when(journalEntryService.getJournalEntryById(1L)).thenReturn(journalEntry(1L));
+
+        //act
+        final MvcResult mvcResult = mockMvc.perform(
+                        get("/api/v1/journalentries/{id}/updates", 1L)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final MockHttpServletResponse response = mvcResult.getResponse();
+
+        //assert
+        assertTrue(waitForContent(response, "event:journalentry\nid:3\ndata:{\"id\":1,"), response.getContentAsString());
+        journalEntryUpdateHub.sendHeartbeats();
+        assertTrue(waitForContent(response, ":heartbeat\n"), response.getContentAsString());
+        assertTrue(response.getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    void givenMaximumSubscribersReached_whenSubscribingToJournalEntryUpdates_thenRejectWithTooManyRequestsAsJson() throws Exception{
+        //arrange
+        when(journalEntryService.getJournalEntryById(1L)).thenReturn(journalEntry(1L));
+        mockMvc.perform(get("/api/v1/journalentries/{id}/updates", 1L).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/{id}/updates", 1L)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+
+                //assert
+                .andExpect(status().isTooManyRequests())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("TOO_MANY_SUBSCRIBERS"))
+                .andExpect(jsonPath("$.message").value(ErrorMessages.TOO_MANY_SUBSCRIBERS));
+    }
+
+    @Test
+    void givenUnknownJournalEntry_whenSubscribingToJournalEntryUpdates_thenRejectWithNotFoundErrorAsJson() throws Exception{
+        //arrange
+        when(journalEntryService.getJournalEntryById(99L))
+                .thenThrow(new JournalEntryNotFoundException(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+
+        //act
+        mockMvc.perform(
+                        get("/api/v1/journalentries/{id}/updates", 99L)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+
+                //assert (the same status as every other endpoint reading an unknown entry)
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("JOURNAL_ENTRY_NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND));
+    }
+
+    // the events are written by the delivery threads of the hub after the request returned
+    private boolean waitForContent(final MockHttpServletResponse response, final String expected) throws UnsupportedEncodingException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(VERIFY_TIMEOUT_MILLIS);
+        while (!response.getContentAsString().contains(expected)) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    private JournalEntryDto journalEntry(final Long journalEntryId) {
+        return new JournalEntryDto(journalEntryId, "test scenario", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null, 3L);
+    }
+}
@@ -0,0 +1,250 @@
+package com.demo.entrymanager.ingest;
+
+import com.demo.entrymanager.dto.JournalEntryBatchItemDto;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryReservationDto;
+import com.demo.entrymanager.exception.IngestQueueFullException;
+import com.demo.entrymanager.model.JournalEntryReservation;
+import com.demo.entrymanager.model.ReservationStatus;
+import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.repository.JournalEntryReservationRepository;
+import com.demo.entrymanager.util.ErrorMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JournalEntryIngestQueueTest {
+    private static final long VERIFY_TIMEOUT_MILLIS = 5000;
+
+    @Mock
+    private JournalEntryIngestWriter journalEntryIngestWriter;
+
+    @Mock
+    private JournalEntryReservationRepository journalEntryReservationRepository;
+
+    @TempDir
+    Path walDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JournalEntryIngestQueue journalEntryIngestQueue;
+
+    @AfterEach
+    void stopQueue(){
+        if (journalEntryIngestQueue != null) {
+            journalEntryIngestQueue.stop();
+        }
+    }
+
+    @Test
+    void givenFullBatchSubmittedWithinTheLinger_whenDraining_thenDraftsArePersistedInOneBatch(){
+        //arrange
+        when(journalEntryIngestWriter.persistDrafts(anyList())).thenAnswer(invocation -> accepted(invocation.getArgument(0)));
+        journalEntryIngestQueue = startQueue(10, 3, Duration.ofSeconds(10));
+
+        //act
+        final List<UUID> reservationIds = List.of(
+                journalEntryIngestQueue.submitDraft(draft("first scenario")).reservationId(),
+                journalEntryIngestQueue.submitDraft(draft("second scenario")).reservationId(),
+                journalEntryIngestQueue.submitDraft(draft("third scenario")).reservationId());
+
+        //assert
+        verify(journalEntryIngestWriter, timeout(VERIFY_TIMEOUT_MILLIS)).persistDrafts(argThat(commands ->
+                commands.stream().map(IngestCommand::reservationId).toList().equals(reservationIds)));
+        verify(journalEntryIngestWriter, times(1)).persistDrafts(anyList());
+    }
+
+    @Test
+    void givenBatchNotFilled_whenTheLingerElapses_thenDraftsArePersisted(){
+        //arrange
+        when(journalEntryIngestWriter.persistDrafts(anyList())).thenAnswer(invocation -> accepted(invocation.getArgument(0)));
+        journalEntryIngestQueue = startQueue(10, 500, Duration.ofMillis(50));
+
+        //act
+        final UUID reservationId = journalEntryIngestQueue.submitDraft(draft("test scenario")).reservationId();
+
+        //assert
+        verify(journalEntryIngestWriter, timeout(VERIFY_TIMEOUT_MILLIS)).persistDrafts(argThat(commands ->
+                commands.size() == 1 && commands.get(0).reservationId().equals(reservationId)));
+    }
+
+    @Test
+    void givenQueueAtCapacity_whenSubmitting_thenCommandIsRejectedAndAcceptedOneStaysPending() throws InterruptedException {
+        //arrange
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(journalEntryIngestWriter.persistDrafts(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return accepted(invocation.getArgument(0));
+        });
+        journalEntryIngestQueue = startQueue(1, 500, Duration.ZERO);
+        final UUID reservationId = journalEntryIngestQueue.submitDraft(draft("first scenario")).reservationId();
+        assertTrue(writing.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        //act
+        final IngestQueueFullException exception = assertThrows(IngestQueueFullException.class,
+                () -> journalEntryIngestQueue.submitDraft(draft("second scenario")));
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.getReservation(reservationId);
+        release.countDown();
+
+        //assert
+        assertNotNull(exception);
+        assertEquals(ReservationStatus.PENDING, reservationDto.status());
+        verify(journalEntryReservationRepository, never()).findById(reservationId);
+    }
+
+    @Test
+    void givenRejectedTransition_whenGettingTheReservation_thenRecordedFailureIsReturned(){
+        //arrange
+        final String error = "Journal entry is not in review";
+        when(journalEntryIngestWriter.applyTransition(any())).thenThrow(new IllegalStateException(error));
+        journalEntryIngestQueue = startQueue(10, 500, Duration.ZERO);
+        final UUID reservationId = journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.REVIEW, 1L, null).reservationId();
+        verify(journalEntryIngestWriter, timeout(VERIFY_TIMEOUT_MILLIS)).recordFailure(reservationId, error);
+        when(journalEntryReservationRepository.findById(reservationId))
+                .thenReturn(Optional.of(JournalEntryReservation.ofFailed(reservationId, error, LocalDateTime.now())));
+
+        //act
+        final JournalEntryReservationDto reservationDto = waitForCompletion(reservationId);
+
+        //assert
+        assertEquals(ReservationStatus.FAILED, reservationDto.status());
+        assertEquals(error, reservationDto.error());
+    }
+
+    @Test
+    void givenDatabaseUnavailable_whenTheWriterIsInterrupted_thenTheInFlightReservationIsRecordedFailedAndTheWriterExits() throws InterruptedException {
+        //arrange
+        final AtomicReference<Thread> writerThread = new AtomicReference<>();
+        final CountDownLatch retrying = new CountDownLatch(1);
+        when(journalEntryIngestWriter.applyTransition(any())).thenAnswer(invocation -> {
+            writerThread.set(Thread.currentThread());
+            retrying.countDown();
+            throw new TransientDataAccessResourceException("database unavailable");
+        });
+        journalEntryIngestQueue = startQueue(10, 500, Duration.ZERO);
+        final UUID reservationId = journalEntryIngestQueue.submitTransition(IngestCommand.CommandType.REVIEW, 1L, null).reservationId();
+        assertTrue(retrying.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        when(journalEntryReservationRepository.findById(reservationId))
+                .thenReturn(Optional.of(JournalEntryReservation.ofFailed(reservationId, ErrorMessages.INGEST_INTERRUPTED, LocalDateTime.now())));
+
+        //act
+        writerThread.get().interrupt();
+        writerThread.get().join(VERIFY_TIMEOUT_MILLIS);
+
+        //assert
+        assertFalse(writerThread.get().isAlive());
+        verify(journalEntryIngestWriter).recordFailure(reservationId, ErrorMessages.INGEST_INTERRUPTED);
+        final JournalEntryReservationDto reservationDto = journalEntryIngestQueue.getReservation(reservationId);
+        assertEquals(ReservationStatus.FAILED, reservationDto.status());
+        assertEquals(ErrorMessages.INGEST_INTERRUPTED, reservationDto.error());
+    }
+
+    @Test
+    void givenDatabaseStillUnavailable_whenTheWriterIsInterrupted_thenTheReservationStaysPendingForTheReplay() throws InterruptedException {
+        //arrange
+        final AtomicReference<Thread> writerThread = new AtomicReference<>();
+        final CountDownLatch retrying = new CountDownLatch(1);
+        when(journalEntryIngestWriter.persistDrafts(anyList())).thenAnswer(invocation -> {
+            writerThread.set(Thread.currentThread());
+            retrying.countDown();
+            throw new TransientDataAccessResourceException("database unavailable");
+        });
+        doThrow(new TransientDataAccessResourceException("database unavailable"))
+                .when(journalEntryIngestWriter).recordFailure(any(), eq(ErrorMessages.INGEST_INTERRUPTED));
+        journalEntryIngestQueue = startQueue(10, 500, Duration.ZERO);
+        final UUID reservationId = journalEntryIngestQueue.submitDraft(draft("test scenario")).reservationId();
+        assertTrue(retrying.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        //act
+        writerThread.get().interrupt();
+        writerThread.get().join(VERIFY_TIMEOUT_MILLIS);
+
+        //assert (a failure is only reported once it is recorded, the command is still in the write-ahead log)
+        assertFalse(writerThread.get().isAlive());
+        verify(journalEntryIngestWriter).recordFailure(reservationId, ErrorMessages.INGEST_INTERRUPTED);
+        assertEquals(ReservationStatus.PENDING, journalEntryIngestQueue.getReservation(reservationId).status());
+    }
+
+    @Test
+    void givenCommandsLoggedBeforeACrash_whenStarting_thenOnlyTheUncompletedOnesAreReplayed() throws IOException {
+        //arrange
+        final IngestCommand applied = IngestCommand.ofCreate(UUID.randomUUID(), "applied scenario");
+        final IngestCommand failed = IngestCommand.ofTransition(UUID.randomUUID(), IngestCommand.CommandType.APPROVE, 2L, null);
+        final IngestCommand unapplied = IngestCommand.ofCreate(UUID.randomUUID(), "unapplied scenario");
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(walDirectory, DataSize.ofMegabytes(64).toBytes(), objectMapper)) {
+            writeAheadLog.open();
+            writeAheadLog.append(applied);
+            writeAheadLog.append(failed);
+            writeAheadLog.append(unapplied);
+        }
+        when(journalEntryReservationRepository.findAllById(List.of(applied.reservationId(), failed.reservationId(), unapplied.reservationId())))
+                .thenReturn(List.of(
+                        JournalEntryReservation.ofPersisted(applied.reservationId(), 1L, LocalDateTime.now()),
+                        JournalEntryReservation.ofFailed(failed.reservationId(), "Journal entry is not reviewed", LocalDateTime.now())));
+        when(journalEntryIngestWriter.persistDrafts(List.of(unapplied))).thenReturn(accepted(List.of(unapplied)));
+
+        //act
+        journalEntryIngestQueue = startQueue(10, 500, Duration.ZERO);
+
+        //assert
+        verify(journalEntryIngestWriter).persistDrafts(List.of(unapplied));
+        verify(journalEntryIngestWriter, never()).applyTransition(any());
+    }
+
+    private JournalEntryIngestQueue startQueue(final int queueCapacity, final int batchSize, final Duration linger) {
+        final JournalEntryIngestQueue queue = new JournalEntryIngestQueue(journalEntryIngestWriter, journalEntryReservationRepository,
+                objectMapper, walDirectory, DataSize.ofMegabytes(64), queueCapacity, batchSize, linger, Duration.ofMillis(10));
+        queue.start();
+        return queue;
+    }
+
+    // the pending id is dropped right after the writer returns, on the writer thread
+    private JournalEntryReservationDto waitForCompletion(final UUID reservationId) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(VERIFY_TIMEOUT_MILLIS);
+        JournalEntryReservationDto reservationDto = journalEntryIngestQueue.getReservation(reservationId);
+        while (reservationDto.status() == ReservationStatus.PENDING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            reservationDto = journalEntryIngestQueue.getReservation(reservationId);
+        }
+        return reservationDto;
+    }
+
+    private JournalEntryDto draft(final String scenario) {
+        return new JournalEntryDto(null, scenario, null, null, null, null, null, null, null);
+    }
+
+    private Map<UUID, JournalEntryBatchItemDto> accepted(final List<IngestCommand> createCommands) {
+        final Map<UUID, JournalEntryBatchItemDto> itemsByReservationId = new LinkedHashMap<>();
+        for (int i = 0; i < createCommands.size(); i++) {
+            final IngestCommand createCommand = createCommands.get(i);
+            itemsByReservationId.put(createCommand.reservationId(), JournalEntryBatchItemDto.ofAccepted(i,
+                    new JournalEntryDto((long) i + 1, createCommand.scenario(), Status.DRAFT, LocalDateTime.now(), null, null, null, null, null)));
+        }
+        return itemsByReservationId;
+    }
+}
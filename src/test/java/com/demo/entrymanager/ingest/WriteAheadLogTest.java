@@ -0,0 +1,199 @@
+package com.demo.entrymanager.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WriteAheadLogTest {
+    private static final long LARGE_SEGMENT = 64 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenTornRecordAtTheEndOfASegment_whenOpening_thenCommandsBeforeItAreReplayed() throws IOException {
+        //arrange
+        final IngestCommand first = draft("first scenario");
+        final IngestCommand second = draft("second scenario");
+        try (WriteAheadLog writeAheadLog = openLog(LARGE_SEGMENT)) {
+            writeAheadLog.append(first);
+            writeAheadLog.append(second);
+        }
+        // a header announcing more bytes than were written before the crash
+        Files.write(onlySegment(), ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(42).array(), StandardOpenOption.APPEND);
+
+        //act
+        final List<IngestCommand> pending;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(directory, LARGE_SEGMENT, objectMapper)) {
+            pending = writeAheadLog.open();
+        }
+
+        //assert
+        assertEquals(List.of(first, second), pending);
+    }
+
+    @Test
+    void givenRecordWithCorruptPayload_whenOpening_thenReplayStopsBeforeIt() throws IOException {
+        //arrange
+        final IngestCommand first = draft("first scenario");
+        final IngestCommand third = draft("third scenario");
+        try (WriteAheadLog writeAheadLog = openLog(LARGE_SEGMENT)) {
+            writeAheadLog.append(first);
+            writeAheadLog.append(draft("second scenario"));
+            writeAheadLog.append(third);
+        }
+        final Path segment = onlySegment();
+        final byte[] bytes = Files.readAllBytes(segment);
+        final int secondPayloadEnd = bytes.length - recordLength(third) - 2;
+        bytes[secondPayloadEnd] ^= 0x01;
+        Files.write(segment, bytes);
+
+        //act
+        final List<IngestCommand> pending;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(directory, LARGE_SEGMENT, objectMapper)) {
+            pending = writeAheadLog.open();
+        }
+
+        //assert
+        assertEquals(List.of(first), pending);
+    }
+
+    @Test
+    void givenConcurrentAppends_whenOpeningTheLogAgain_thenEveryAcknowledgedCommandIsReplayed() throws Exception {
+        //arrange
+        final int threads = 8;
+        final int commandsPerThread = 50;
+        final WriteAheadLog writeAheadLog = openLog(LARGE_SEGMENT);
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final List<Future<List<UUID>>> appended = new ArrayList<>();
+
+        //act
+        for (int t = 0; t < threads; t++) {
+            appended.add(executorService.submit(() -> {
+                final List<UUID> reservationIds = new ArrayList<>();
+                for (int i = 0; i < commandsPerThread; i++) {
+                    final IngestCommand command = draft("scenario " + i);
+                    writeAheadLog.append(command);
+                    reservationIds.add(command.reservationId());
+                }
+                return reservationIds;
+            }));
+        }
+        final Set<UUID> acknowledgedIds = new HashSet<>();
+        for (final Future<List<UUID>> future : appended) {
+            acknowledgedIds.addAll(future.get());
+        }
+        executorService.shutdown();
+        final List<IngestCommand> pending;
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, LARGE_SEGMENT, objectMapper)) {
+            pending = reopened.open();
+        }
+        writeAheadLog.close();
+
+        //assert
+        assertEquals(threads * commandsPerThread, acknowledgedIds.size());
+        assertEquals(acknowledgedIds, pending.stream().map(IngestCommand::reservationId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void givenSegmentOverTheSegmentSize_whenAppending_thenTheLogRollsToANewSegment() throws IOException {
+        //arrange
+        final IngestCommand first = draft("first scenario");
+        final IngestCommand second = draft("second scenario");
+        final IngestCommand third = draft("third scenario");
+
+        //act
+        final List<Path> segments;
+        try (WriteAheadLog writeAheadLog = openLog(1)) {
+            writeAheadLog.append(first);
+            writeAheadLog.append(second);
+            writeAheadLog.append(third);
+            segments = segments();
+        }
+        final List<IngestCommand> pending;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(directory, 1, objectMapper)) {
+            pending = writeAheadLog.open();
+        }
+
+        //assert
+        assertEquals(4, segments.size());
+        assertEquals(List.of(first, second, third), pending);
+    }
+
+    @Test
+    void givenCompletedCommands_whenCompleting_thenOnlyTheCompletedPrefixOfSegmentsIsDeleted() throws IOException {
+        //arrange
+        final IngestCommand first = draft("first scenario");
+        final IngestCommand second = draft("second scenario");
+        final IngestCommand third = draft("third scenario");
+        final List<Path> segmentsAfterSecond;
+        final List<Path> segmentsAfterFirst;
+        try (WriteAheadLog writeAheadLog = openLog(1)) {
+            writeAheadLog.append(first);
+            writeAheadLog.append(second);
+            writeAheadLog.append(third);
+
+            //act
+            writeAheadLog.complete(List.of(second.reservationId()));
+            segmentsAfterSecond = segments();
+            writeAheadLog.complete(List.of(first.reservationId()));
+            segmentsAfterFirst = segments();
+        }
+        final List<IngestCommand> pending;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(directory, 1, objectMapper)) {
+            pending = writeAheadLog.open();
+        }
+
+        //assert
+        assertEquals(4, segmentsAfterSecond.size());
+        assertEquals(2, segmentsAfterFirst.size());
+        assertEquals(List.of(third), pending);
+    }
+
+    private WriteAheadLog openLog(final long segmentSize) throws IOException {
+        final WriteAheadLog writeAheadLog = new WriteAheadLog(directory, segmentSize, objectMapper);
+        writeAheadLog.open();
+        return writeAheadLog;
+    }
+
+    private IngestCommand draft(final String scenario) {
+        return IngestCommand.ofCreate(UUID.randomUUID(), scenario);
+    }
+
+    private int recordLength(final IngestCommand command) throws IOException {
+        final WriteAheadLog.LogRecord logRecord = new WriteAheadLog.LogRecord(WriteAheadLog.RecordType.COMMAND, command.reservationId(), command);
+        return Integer.BYTES * 2 + objectMapper.writeValueAsBytes(logRecord).length;
+    }
+
+    private Path onlySegment() throws IOException {
+        final List<Path> segments = segments();
+        assertEquals(1, segments.size());
+        return segments.get(0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".wal")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.entrymanager.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the SQL Hibernate sends to the database, so the tests can look at the statements the repositories generate
+ * instead of restating them by hand.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(final String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Returns the last captured statement reading from the given table.
+     */
+    public static String lastQueryOn(final String table) {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            final String sql = STATEMENTS.get(i);
+            if (sql.startsWith("select") && sql.contains(" from " + table + " ")) {
+                return sql;
+            }
+        }
+        throw new AssertionError("No query on " + table + " was captured: " + STATEMENTS);
+    }
+}
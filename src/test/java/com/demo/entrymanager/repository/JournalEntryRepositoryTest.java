@@ -1,26 +1,77 @@
 package com.demo.entrymanager.repository;
 
+import com.demo.entrymanager.dto.AccountantCountDto;
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
 import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryEventDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
+import com.demo.entrymanager.model.Accountant;
 import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.JournalEntryArchiveRange;
+import com.demo.entrymanager.model.JournalEntryCounterId;
+import com.demo.entrymanager.model.JournalEntryEvent;
 import com.demo.entrymanager.model.Status;
+import com.demo.entrymanager.search.JournalEntrySearchIndex;
+import com.demo.entrymanager.service.JournalEntryChangeFeed;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
-@DataJpaTest
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.demo.entrymanager.repository.CapturingStatementInspector"})
 @Sql({"/filterTestData.sql"})
+@Import({JournalEntrySearchIndex.class, JournalEntryArchiveBounds.class, JournalEntryChangeFeed.class})
 public class JournalEntryRepositoryTest {
 
     @Autowired
     private JournalEntryRepository journalEntryRepository;
 
+    @Autowired
+    private JournalEntryCounterRepository journalEntryCounterRepository;
+
+    @Autowired
+    private JournalEntryEventRepository journalEntryEventRepository;
+
+    @Autowired
+    private JournalEntrySearchIndex journalEntrySearchIndex;
+
+    @Autowired
+    private ArchivedJournalEntryRepository archivedJournalEntryRepository;
+
+    @Autowired
+    private JournalEntryArchiveBounds journalEntryArchiveBounds;
+
+    @Autowired
+    private JournalEntryArchiveRangeRepository journalEntryArchiveRangeRepository;
+
+    @Autowired
+    private JournalEntryChangeFeed journalEntryChangeFeed;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void givenStatus_whenGettingJournalEntries_thenEntriesWithMatchingStatusAreReturned(){
 
@@ -114,5 +165,478 @@ public class JournalEntryRepositoryTest {
         assertEquals(2, journalEntries.size());
     }
 
+    @Test
+    void givenPageLimit_whenGettingJournalEntries_thenEntriesAreOrderedByDraftedDateAndId(){
+        List<JournalEntry> firstPage =
+                journalEntryRepository.findWithFilters(null, null, null, null, null, 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1L, firstPage.get(0).getId());
+        assertEquals(4L, firstPage.get(1).getId());
+    }
+
+    @Test
+    void givenCursor_whenGettingJournalEntries_thenEntriesAfterTheCursorAreReturned(){
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 5, 28, 8, 30);
+
+        List<JournalEntry> secondPage =
+                journalEntryRepository.findWithFilters(null, null, null, null,
+                        new JournalEntryCursor(draftedDate, 4L), 2);
+
+        assertEquals(2, secondPage.size());
+        assertEquals(5L, secondPage.get(0).getId());
+        assertEquals(2L, secondPage.get(1).getId());
+
+        final JournalEntry lastEntry = secondPage.get(1);
+        List<JournalEntry> lastPage =
+                journalEntryRepository.findWithFilters(null, null, null, null,
+                        new JournalEntryCursor(lastEntry.getDraftedDate(), lastEntry.getId()), 2);
+
+        assertEquals(1, lastPage.size());
+        assertEquals(3L, lastPage.get(0).getId());
+    }
+
+    @Test
+    void givenCursorAndFilters_whenGettingJournalEntries_thenFiltersStillApply(){
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 5, 28, 8, 30);
+
+        List<JournalEntry> journalEntries =
+                journalEntryRepository.findWithFilters(List.of(Status.DRAFT), null, null, null,
+                        new JournalEntryCursor(draftedDate, 1L), 10);
+
+        assertEquals(1, journalEntries.size());
+        assertEquals(3L, journalEntries.get(0).getId());
+        assertTrue(journalEntries.stream().allMatch(entry -> entry.getStatus() == Status.DRAFT));
+    }
+
+    @Test
+    void givenEntriesWithAssignedAccountants_whenGettingJournalEntries_thenAccountantsAreLoadedInTheSameStatement(){
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        List<JournalEntry> allJournalEntries =
+                journalEntryRepository.findWithFilters(null, null, null, null);
+        allJournalEntries.forEach(entry -> {
+            if (entry.getAssignedAccountant() != null) {
+                entry.getAssignedAccountant().getName();
+            }
+        });
+
+        assertEquals(5, allJournalEntries.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void givenEntriesWithAssignedAccountants_whenGettingJournalEntriesPage_thenAccountantsAreLoadedInTheSameStatement(){
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        List<JournalEntry> journalEntries =
+                journalEntryRepository.findWithFilters(null, null, null, null, null, 10);
+
+        assertEquals(5, journalEntries.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void givenFilters_whenGettingJournalEntryDtos_thenDtosAreProjectedWithoutLoadingEntities(){
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        List<JournalEntryDto> journalEntryDtos =
+                journalEntryRepository.findDtosWithFilters(null, null, null, "David Marshall 2", null, 10);
+
+        assertEquals(2, journalEntryDtos.size());
+        assertEquals(4L, journalEntryDtos.get(0).id());
+        assertEquals(5L, journalEntryDtos.get(1).id());
+        for (final JournalEntryDto journalEntryDto : journalEntryDtos){
+            assertEquals("David Marshall 2", journalEntryDto.assignedAccountant());
+            assertNotNull(journalEntryDto.scenario());
+            assertNotNull(journalEntryDto.reviewNotes());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void givenCursor_whenGettingJournalEntryDtos_thenDtosAfterTheCursorAreReturned(){
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 5, 28, 8, 30);
+
+        List<JournalEntryDto> journalEntryDtos =
+                journalEntryRepository.findDtosWithFilters(null, null, null, null,
+                        new JournalEntryCursor(draftedDate, 1L), 2);
+
+        assertEquals(2, journalEntryDtos.size());
+        assertEquals(4L, journalEntryDtos.get(0).id());
+        assertEquals(5L, journalEntryDtos.get(1).id());
+    }
+
+    @Test
+    void givenEntryWithoutAccountant_whenGettingJournalEntryDtos_thenAccountantNameIsNull(){
+        List<JournalEntryDto> journalEntryDtos =
+                journalEntryRepository.findDtosWithFilters(null, null, null, null, null, 1);
+
+        assertEquals(1, journalEntryDtos.size());
+        assertEquals(1L, journalEntryDtos.get(0).id());
+        assertEquals(Status.DRAFT, journalEntryDtos.get(0).status());
+        assertNull(journalEntryDtos.get(0).assignedAccountant());
+    }
+
+    @Test
+    void givenManyDrafts_whenSavingInBatches_thenAllDraftsArePersistedWithGeneratedIds(){
+        final List<JournalEntry> drafts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            drafts.add(new JournalEntry(null, "batch scenario " + i, Status.DRAFT, LocalDateTime.now()));
+        }
+
+        List<JournalEntry> savedDrafts = journalEntryRepository.saveAllInBatches(drafts);
+
+        assertEquals(120, savedDrafts.size());
+        assertTrue(savedDrafts.stream().allMatch(draft -> draft.getId() != null && draft.getId() > 5));
+        assertEquals(125, journalEntryRepository.count());
+    }
+
+    @Test
+    void givenDraftAndNonDraftEntries_whenAssigningAccountantToAll_thenOnlyDraftsAreUpdatedAndReturned(){
+        final List<JournalEntry> assignedJournalEntries = journalEntryRepository.assignAccountantToAll(List.of(1L, 3L, 4L), 1L);
+
+        assertEquals(List.of(1L, 3L), assignedJournalEntries.stream().map(JournalEntry::getId).sorted().toList());
+        final JournalEntry assignedJournalEntry = journalEntryRepository.findById(3L).orElseThrow();
+        assertEquals(Status.IN_REVIEW, assignedJournalEntry.getStatus());
+        assertEquals("David Marshall 1", assignedJournalEntry.getAssignedAccountant().getName());
+        assertEquals(Status.REVIEWED, journalEntryRepository.findById(4L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void givenInReviewEntryWithoutReviewNotes_whenReviewingAll_thenEntryIsNotUpdated(){
+        final List<JournalEntry> reviewedJournalEntries = journalEntryRepository.reviewAll(List.of(2L), LocalDateTime.now());
+
+        assertTrue(reviewedJournalEntries.isEmpty());
+        assertEquals(Status.IN_REVIEW, journalEntryRepository.findById(2L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void givenStatusAndDateRangeFilter_whenExplainingFilterQuery_thenStatusDraftedDateIndexIsUsed(){
+        final LocalDateTime startDate = LocalDateTime.of(2025, 5, 1, 0, 0);
+        final LocalDateTime endDate = LocalDateTime.of(2025, 6, 1, 0, 0);
+        CapturingStatementInspector.clear();
+
+        journalEntryRepository.findWithFilters(List.of(Status.DRAFT, Status.IN_REVIEW), startDate, endDate, null);
+        final String plan = explain(CapturingStatementInspector.lastQueryOn("journal_entry"),
+                Status.DRAFT.name(), Status.IN_REVIEW.name(), startDate, endDate);
+
+        assertTrue(plan.contains("IDX_JOURNAL_ENTRY_STATUS_DRAFTED_DATE"), plan);
+    }
+
+    @Test
+    void givenKeysetCursor_whenExplainingFilterQuery_thenDraftedDateIdIndexIsUsed(){
+        final JournalEntryCursor cursor = new JournalEntryCursor(LocalDateTime.of(2025, 5, 28, 8, 30), 4L);
+        CapturingStatementInspector.clear();
+
+        journalEntryRepository.findWithFilters(null, null, null, null, cursor, 10);
+        final String plan = explain(CapturingStatementInspector.lastQueryOn("journal_entry"),
+                cursor.draftedDate(), cursor.draftedDate(), cursor.id(), 10);
+
+        assertTrue(plan.contains("IDX_JOURNAL_ENTRY_DRAFTED_DATE_ID"), plan);
+    }
+
+    @Test
+    void givenAccountantNameFilter_whenExplainingFilterQuery_thenAccountantNameAndAssignedAccountantIndexesAreUsed(){
+        CapturingStatementInspector.clear();
+
+        final List<JournalEntry> journalEntries = journalEntryRepository.findWithFilters(null, null, null, "David Marshall 2");
+        final String plan = explain(CapturingStatementInspector.lastQueryOn("journal_entry"), "David Marshall 2");
+
+        assertEquals(List.of(4L, 5L), journalEntries.stream().map(JournalEntry::getId).sorted().toList());
+        assertTrue(plan.contains("IDX_ACCOUNTANT_NAME"), plan);
+        assertTrue(plan.contains("IDX_JOURNAL_ENTRY_ASSIGNED_ACCOUNTANT"), plan);
+    }
+
+    // the plan of the statement the repository sent, with the values bound in the order the repository bound them
+    private String explain(final String sql, final Object... parameters){
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1).toUpperCase();
+                }
+            }
+        });
+    }
+
+    @Test
+    void givenAccountantLoadedOnce_whenLoadedAgainInNewPersistenceContext_thenItIsServedFromSecondLevelCache(){
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.getEntityManagerFactory().getCache().evict(Accountant.class);
+        entityManager.clear();
+        statistics.clear();
+
+        entityManager.find(Accountant.class, 1L);
+        entityManager.clear();
+        final long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+        final Accountant accountant = entityManager.find(Accountant.class, 1L);
+
+        assertEquals("David Marshall 1", accountant.getName());
+        assertEquals(statementsAfterFirstLoad, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Accountant.CACHE_REGION).getMissCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Accountant.CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void givenDraftEntry_whenAssigningAccountantToAll_thenVersionIsIncremented(){
+        journalEntryRepository.assignAccountantToAll(List.of(1L), 1L);
+
+        assertEquals(1L, journalEntryRepository.findById(1L).orElseThrow().getVersion());
+    }
+
+    @Test
+    void givenPartlyAppliedAssignment_whenAssigningAccountantToAll_thenTheAssignedEntryIsReturnedInItsNewState(){
+        final List<JournalEntry> assignedJournalEntries = journalEntryRepository.assignAccountantToAll(List.of(3L, 4L), 1L);
+
+        assertEquals(1, assignedJournalEntries.size());
+        final JournalEntry assignedJournalEntry = assignedJournalEntries.get(0);
+        assertEquals(3L, assignedJournalEntry.getId());
+        assertEquals(Status.IN_REVIEW, assignedJournalEntry.getStatus());
+        assertEquals(1L, assignedJournalEntry.getVersion());
+        assertEquals("David Marshall 1", assignedJournalEntry.getAssignedAccountant().getName());
+        assertEquals("test data layer - scenario 3", assignedJournalEntry.getScenario());
+        assertEquals(0L, journalEntryRepository.findById(4L).orElseThrow().getVersion());
+    }
+
+    @Test
+    void givenNoFilters_whenCountingWithFilters_thenAllEntriesAreCountedByStatusAccountantAndDay(){
+        final LocalDate today = LocalDate.now();
+
+        final JournalEntryStatsDto stats = journalEntryRepository.countWithFilters(null, null, null, null, DateBucket.DAY);
+
+        assertEquals(5, stats.total());
+        assertEquals(Map.of(Status.DRAFT, 2L, Status.IN_REVIEW, 1L, Status.REVIEWED, 1L, Status.APPROVED, 1L), stats.byStatus());
+        assertEquals(List.of(new AccountantCountDto(1L, "David Marshall 1", 1L), new AccountantCountDto(2L, "David Marshall 2", 2L)), stats.byAccountant());
+        assertEquals(2, stats.unassigned());
+        assertEquals(Map.of(LocalDate.of(2025, 5, 28), 3L, today, 2L), stats.byDraftedDate());
+    }
+
+    @Test
+    void givenAccountantsSharingAName_whenCountingWithFilters_thenEachAccountantIsCountedSeparately(){
+        final Accountant namesake = new Accountant(null, "David Marshall 2");
+        entityManager.persist(namesake);
+        journalEntryRepository.findById(3L).orElseThrow().setAssignedAccountant(namesake);
+        entityManager.flush();
+
+        final JournalEntryStatsDto stats = journalEntryRepository.countWithFilters(null, null, null, null, DateBucket.DAY);
+
+        assertEquals(List.of(new AccountantCountDto(1L, "David Marshall 1", 1L), new AccountantCountDto(2L, "David Marshall 2", 2L),
+                new AccountantCountDto(namesake.getId(), "David Marshall 2", 1L)), stats.byAccountant());
+        assertEquals(1, stats.unassigned());
+    }
+
+    @Test
+    void givenFiltersAndMonthBucket_whenCountingWithFilters_thenOnlyMatchingEntriesAreCounted(){
+        final JournalEntryStatsDto stats = journalEntryRepository.countWithFilters(
+                List.of(Status.REVIEWED, Status.APPROVED), null, LocalDateTime.of(2025, 5, 31, 0, 0), "David Marshall 2", DateBucket.MONTH);
+
+        assertEquals(2, stats.total());
+        assertEquals(Map.of(Status.REVIEWED, 1L, Status.APPROVED, 1L), stats.byStatus());
+        assertEquals(List.of(new AccountantCountDto(2L, "David Marshall 2", 2L)), stats.byAccountant());
+        assertEquals(0, stats.unassigned());
+        assertEquals(Map.of(LocalDate.of(2025, 5, 1), 2L), stats.byDraftedDate());
+    }
+
+    @Test
+    void givenNoCounters_whenReconcilingCounts_thenCountersMatchTheEntries(){
+        final int created = journalEntryCounterRepository.reconcileCounts();
+
+        assertEquals(4, created);
+        assertEquals(2, journalEntryCounterRepository.sumByStatus(Status.DRAFT));
+        assertEquals(1, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.IN_REVIEW, 1L));
+        assertEquals(1, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.REVIEWED, 2L));
+        assertEquals(1, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.APPROVED, 2L));
+    }
+
+    @Test
+    void givenCounters_whenAddingToCount_thenExistingCounterIsIncrementedAndMissingCounterIsCreated(){
+        journalEntryCounterRepository.reconcileCounts();
+
+        journalEntryCounterRepository.addToCount(Status.IN_REVIEW.name(), 1L, -1);
+        journalEntryCounterRepository.addToCount(Status.REVIEWED.name(), 1L, 1);
+        entityManager.clear();
+
+        assertEquals(0, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.IN_REVIEW, 1L));
+        assertEquals(1, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.REVIEWED, 1L));
+        assertEquals(2, journalEntryCounterRepository.sumByStatus(Status.REVIEWED));
+    }
+
+    @Test
+    void givenCounterSpreadOverShards_whenReconcilingCounts_thenShardZeroTakesTheCorrection(){
+        journalEntryCounterRepository.addToShard(Status.DRAFT.name(), JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID, 3, 4);
+        journalEntryCounterRepository.addToShard(Status.DRAFT.name(), JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID, 5, 1);
+
+        journalEntryCounterRepository.reconcileCounts();
+        entityManager.clear();
+
+        assertEquals(2, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.DRAFT, JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID));
+        assertEquals(-3, journalEntryCounterRepository.findById(
+                new JournalEntryCounterId(Status.DRAFT, JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID, 0)).orElseThrow().getEntries());
+        assertEquals(0, journalEntryCounterRepository.reconcileCounts());
+    }
+
+    @Test
+    void givenDriftedCounters_whenReconcilingCounts_thenDriftedCountersAreCorrected(){
+        journalEntryCounterRepository.reconcileCounts();
+        journalEntryCounterRepository.addToCount(Status.DRAFT.name(), JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID, 3);
+        journalEntryCounterRepository.addToCount(Status.REVIEWED.name(), 1L, 1);
+
+        final int corrected = journalEntryCounterRepository.reconcileCounts() + journalEntryCounterRepository.reconcileStaleCounts();
+        entityManager.clear();
+
+        assertEquals(2, corrected);
+        assertEquals(2, journalEntryCounterRepository.sumByStatus(Status.DRAFT));
+        assertEquals(0, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.REVIEWED, 1L));
+    }
+
+    @Test
+    void givenFilters_whenStreamingJournalEntryDtos_thenMatchingDtosAreStreamedInDraftedDateAndIdOrder(){
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        final List<Long> ids;
+        try (Stream<JournalEntryDto> journalEntryDtos = journalEntryRepository.streamDtosWithFilters(
+                List.of(Status.DRAFT, Status.REVIEWED, Status.APPROVED), null, null, null)) {
+            ids = journalEntryDtos.map(JournalEntryDto::id).toList();
+        }
+
+        assertEquals(List.of(1L, 4L, 5L, 3L), ids);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void givenIndexedEntries_whenSearchingWithText_thenEntriesAreRankedByRelevanceAndPaginated(){
+        journalEntrySearchIndex.clear();
+        try (Stream<JournalEntryDto> journalEntryDtos = journalEntryRepository.streamDtosWithFilters(null, null, null, null)) {
+            journalEntrySearchIndex.index(journalEntryDtos.toList());
+        }
+
+        final JournalEntrySearchPageDto firstPage = journalEntryRepository.searchWithText("notes s5", 0, 1);
+        final JournalEntrySearchPageDto secondPage = journalEntryRepository.searchWithText("notes s5", 1, 1);
+
+        assertEquals(2, firstPage.totalHits());
+        assertEquals(List.of(5L), firstPage.entries().stream().map(JournalEntryDto::id).toList());
+        assertEquals("David Marshall 2", firstPage.entries().get(0).assignedAccountant());
+        assertEquals(List.of(4L), secondPage.entries().stream().map(JournalEntryDto::id).toList());
+        assertEquals(0, journalEntryRepository.searchWithText("unknown", 0, 10).totalHits());
+    }
+
+    @Test
+    void givenEntryIndexedByAnUpdate_whenAnOlderStateIsIndexed_thenTheUpdatedStateIsKept(){
+        journalEntrySearchIndex.clear();
+        final LocalDateTime draftedDate = LocalDateTime.now();
+        journalEntrySearchIndex.index(List.of(new JournalEntryDto(1L, "updated scenario", Status.DRAFT, draftedDate, null, null, null, null, null, 2L)));
+
+        journalEntrySearchIndex.index(List.of(new JournalEntryDto(1L, "loaded scenario", Status.DRAFT, draftedDate, null, null, null, null, null, 1L)));
+
+        assertEquals(List.of(1L), journalEntrySearchIndex.search("updated", 0, 10).journalEntryIds());
+        assertEquals(0, journalEntrySearchIndex.search("loaded", 0, 10).totalHits());
+    }
+
+    @Test
+    void givenEventCommittedAfterOneWithHigherId_whenReadingAfterCursor_thenLateEventIsReturned(){
+        final LocalDateTime now = LocalDateTime.now();
+        final JournalEntryEvent reviewed = journalEntryEventRepository.save(
+                new JournalEntryEvent(4L, Status.IN_REVIEW, Status.REVIEWED, now.minusMinutes(1), 2L));
+        journalEntryChangeFeed.assignPositions();
+        final JournalEntryChangesDto firstChanges = journalEntryChangeFeed.read(0, 10, Duration.ZERO);
+        entityManager.createNativeQuery("""
+                insert into journal_entry_event (id, journal_entry_id, from_status, to_status, occurred_at, accountant_id)
+                values (:id, 5, 'REVIEWED', 'APPROVED', :occurredAt, 2)
+                """)
+                .setParameter("id", reviewed.getId() - 1)
+                .setParameter("occurredAt", now)
+                .executeUpdate();
+
+        journalEntryChangeFeed.assignPositions();
+        final JournalEntryChangesDto laterChanges = journalEntryChangeFeed.read(firstChanges.cursor(), 10, Duration.ZERO);
+
+        assertEquals(List.of(reviewed.getId()), firstChanges.events().stream().map(JournalEntryEventDto::id).toList());
+        assertEquals(List.of(reviewed.getId() - 1), laterChanges.events().stream().map(JournalEntryEventDto::id).toList());
+        assertTrue(laterChanges.cursor() > firstChanges.cursor());
+    }
+
+    @Test
+    void givenArchivedApprovedEntry_whenFilteringJournalEntries_thenArchivedEntryIsMergedInDraftedDateAndIdOrder(){
+        archive(List.of(5L));
+
+        final List<JournalEntryDto> journalEntryDtos = journalEntryRepository.findDtosWithFilters(null, null, null, null, null, 10);
+        final List<JournalEntry> approvedJournalEntries = journalEntryRepository.findWithFilters(List.of(Status.APPROVED), null, null, null);
+        final JournalEntryStatsDto stats = journalEntryRepository.countWithFilters(null, null, null, null, DateBucket.DAY);
+        journalEntryCounterRepository.reconcileCounts();
+
+        assertTrue(journalEntryRepository.findById(5L).isEmpty());
+        assertEquals(List.of(1L, 4L, 5L, 2L, 3L), journalEntryDtos.stream().map(JournalEntryDto::id).toList());
+        assertEquals(List.of(5L), approvedJournalEntries.stream().map(JournalEntry::getId).toList());
+        assertEquals(5, stats.total());
+        assertEquals(List.of(new AccountantCountDto(1L, "David Marshall 1", 1L), new AccountantCountDto(2L, "David Marshall 2", 2L)), stats.byAccountant());
+        assertEquals("David Marshall 2", journalEntryRepository.findArchivedDtoById(5L).orElseThrow().assignedAccountant());
+        assertEquals(1, journalEntryCounterRepository.sumByStatusAndAccountantId(Status.APPROVED, 2L));
+    }
+
+    @Test
+    void givenArchivedApprovedEntry_whenCountingWithFilters_thenEachGroupingCountsBothTablesInOneStatement(){
+        archive(List.of(5L));
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        final JournalEntryStatsDto stats = journalEntryRepository.countWithFilters(null, null, null, null, DateBucket.DAY);
+
+        assertEquals(5, stats.total());
+        assertEquals(Map.of(Status.DRAFT, 2L, Status.IN_REVIEW, 1L, Status.REVIEWED, 1L, Status.APPROVED, 1L), stats.byStatus());
+        // the archive bounds lookup, then one UNION ALL statement per grouping: both tables are read from one snapshot
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void givenArchivedApprovedEntry_whenFiltersCannotMatchTheArchive_thenOnlyTheJournalEntriesAreQueried(){
+        archive(List.of(5L));
+        final Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        final List<JournalEntryDto> draftJournalEntryDtos =
+                journalEntryRepository.findDtosWithFilters(List.of(Status.DRAFT), null, null, null, null, 10);
+        final List<JournalEntryDto> recentJournalEntryDtos =
+                journalEntryRepository.findDtosWithFilters(null, LocalDateTime.now().minusDays(2), null, null, null, 10);
+
+        assertEquals(2, draftJournalEntryDtos.size());
+        assertEquals(List.of(2L, 3L), recentJournalEntryDtos.stream().map(JournalEntryDto::id).toList());
+        // the date filter looks up the archive bounds instead of querying the archive
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void givenEntryArchivedThroughTheBoundsOfAnotherInstance_whenFilteringJournalEntries_thenArchivedEntryIsFound(){
+        final DraftedDateRange draftedDateRange = journalEntryRepository.findDraftedDateRange(List.of(5L));
+        journalEntryArchiveRangeRepository.widen(JournalEntryArchiveRange.ID, draftedDateRange.oldest(), draftedDateRange.newest());
+        archivedJournalEntryRepository.copyFromJournalEntries(List.of(5L), LocalDateTime.now());
+        journalEntryRepository.deleteApproved(List.of(5L));
+
+        final List<JournalEntryDto> approvedJournalEntryDtos =
+                journalEntryRepository.findDtosWithFilters(List.of(Status.APPROVED), null, null, null, null, 10);
+
+        assertEquals(List.of(5L), approvedJournalEntryDtos.stream().map(JournalEntryDto::id).toList());
+        assertEquals(List.of(5L), journalEntryRepository.findArchivedIds(List.of(4L, 5L)));
+    }
+
+    private void archive(final List<Long> journalEntryIds) {
+        journalEntryArchiveBounds.include(journalEntryRepository.findDraftedDateRange(journalEntryIds));
+        archivedJournalEntryRepository.copyFromJournalEntries(journalEntryIds, LocalDateTime.now());
+        journalEntryRepository.deleteApproved(journalEntryIds);
+    }
 
 }
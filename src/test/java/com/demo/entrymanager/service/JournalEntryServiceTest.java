@@ -1,25 +1,55 @@
 package com.demo.entrymanager.service;
 
 import com.demo.entrymanager.controller.FilterJournalEntryDto;
+import com.demo.entrymanager.dto.AccountantCountDto;
+import com.demo.entrymanager.dto.JournalEntryBatchResultDto;
+import com.demo.entrymanager.dto.JournalEntryChangesDto;
 import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryPageDto;
+import com.demo.entrymanager.dto.JournalEntryPatchDto;
+import com.demo.entrymanager.dto.JournalEntrySearchPageDto;
+import com.demo.entrymanager.dto.JournalEntryStatsDto;
 import com.demo.entrymanager.exception.*;
+import com.demo.entrymanager.metrics.JournalEntryServiceMetrics;
 import com.demo.entrymanager.model.Accountant;
 import com.demo.entrymanager.model.JournalEntry;
+import com.demo.entrymanager.model.JournalEntryCounterId;
+import com.demo.entrymanager.model.JournalEntryEvent;
 import com.demo.entrymanager.model.Status;
 import com.demo.entrymanager.repository.AccountantRepository;
+import com.demo.entrymanager.repository.DateBucket;
+import com.demo.entrymanager.repository.JournalEntryCounterRepository;
+import com.demo.entrymanager.repository.JournalEntryCursor;
 import com.demo.entrymanager.repository.JournalEntryRepository;
+import com.demo.entrymanager.search.JournalEntrySearchIndex;
 import com.demo.entrymanager.service.impl.JournalEntryServiceImpl;
 import com.demo.entrymanager.util.ErrorMessages;
+import com.demo.entrymanager.util.JournalEntryCsv;
+import com.demo.entrymanager.util.PageTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,9 +64,23 @@ public class JournalEntryServiceTest {
     @Mock
     private AccountantRepository accountantRepository;
 
+    @Mock
+    private JournalEntryCounterRepository journalEntryCounterRepository;
+
+    @Mock
+    private JournalEntrySearchIndex journalEntrySearchIndex;
+
+    @Mock
+    private JournalEntryChangeFeed journalEntryChangeFeed;
+
+    @Mock
+    private JournalEntryUpdateHub journalEntryUpdateHub;
+
     @BeforeEach
     void setup(){
-        journalEntryService = new JournalEntryServiceImpl(journalEntryRepository, accountantRepository);
+        journalEntryService = new JournalEntryServiceImpl(journalEntryRepository, accountantRepository, journalEntryCounterRepository,
+                new ConcurrentMapCacheManager(JournalEntryServiceImpl.JOURNAL_ENTRY_CACHE), new ObjectMapper().findAndRegisterModules(),
+                journalEntrySearchIndex, journalEntryChangeFeed, journalEntryUpdateHub);
     }
 
     // TODO: cover other filter combination errors to fit the business rules
@@ -55,7 +99,7 @@ public class JournalEntryServiceTest {
                 InvalidDateRangeException.class,
 
                 //act
-                () -> journalEntryService.getJournalEntries(filterJournalEntryDto));
+                () -> journalEntryService.getJournalEntries(filterJournalEntryDto, null, null));
 
         //assert
         assertEquals(ErrorMessages.INVALID_DATE_RANGE, exception.getMessage());
@@ -67,16 +111,235 @@ public class JournalEntryServiceTest {
     void givenFilerCriteria_whenGettingJournalEntries_thenFilteredJournalEntries(){
         final FilterJournalEntryDto filterJournalEntryDto =
                 new FilterJournalEntryDto(List.of(Status.DRAFT), null, null, null);
-        final List<JournalEntry> filteredJournalEntries = List.of(
-                new JournalEntry(1L, "test scenario 1", Status.DRAFT, LocalDateTime.now()),
-                new JournalEntry(2L, "test scenario 2", Status.DRAFT, LocalDateTime.now())
+        final List<JournalEntryDto> filteredJournalEntries = List.of(
+                new JournalEntryDto(1L, "test scenario 1", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null),
+                new JournalEntryDto(2L, "test scenario 2", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null)
+        );
+
+        when(journalEntryRepository.findDtosWithFilters(anyList(), any(), any(), any(), any(), anyInt())).thenReturn(filteredJournalEntries);
+
+        final JournalEntryPageDto returnedFilteredJournalEntryDtos = journalEntryService.getJournalEntries(filterJournalEntryDto, null, null);
+
+         assertEquals(2, returnedFilteredJournalEntryDtos.entries().size());
+         assertNull(returnedFilteredJournalEntryDtos.nextPageToken());
+    }
+
+    @Test
+    void givenMoreEntriesThanPageSize_whenGettingJournalEntries_thenNextPageTokenPointsAtLastEntryOfPage(){
+        //arrange
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 5, 28, 8, 30);
+        final List<JournalEntryDto> filteredJournalEntries = List.of(
+                new JournalEntryDto(1L, "test scenario 1", Status.DRAFT, draftedDate, null, null, null, null, null),
+                new JournalEntryDto(2L, "test scenario 2", Status.DRAFT, draftedDate, null, null, null, null, null),
+                new JournalEntryDto(3L, "test scenario 3", Status.DRAFT, draftedDate, null, null, null, null, null)
         );
+        when(journalEntryRepository.findDtosWithFilters(isNull(), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(filteredJournalEntries);
+
+        //act
+        final JournalEntryPageDto page = journalEntryService.getJournalEntries(filterJournalEntryDto, null, 2);
+
+        //assert
+        assertEquals(2, page.entries().size());
+        assertNotNull(page.nextPageToken());
+        assertEquals(new JournalEntryCursor(draftedDate, 2L), PageTokens.decode(page.nextPageToken()));
+    }
+
+    @Test
+    void givenPageToken_whenGettingJournalEntries_thenRepositoryIsQueriedAfterTheCursor(){
+        //arrange
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+        final JournalEntryCursor cursor = new JournalEntryCursor(LocalDateTime.of(2025, 5, 28, 8, 30), 2L);
+        when(journalEntryRepository.findDtosWithFilters(isNull(), isNull(), isNull(), isNull(), eq(cursor), anyInt()))
+                .thenReturn(List.of());
+
+        //act
+        final JournalEntryPageDto page = journalEntryService.getJournalEntries(filterJournalEntryDto, PageTokens.encode(cursor), null);
+
+        //assert
+        assertTrue(page.entries().isEmpty());
+        assertNull(page.nextPageToken());
+    }
+
+    @Test
+    void givenPageSizeAboveMaximum_whenGettingJournalEntries_thenPageSizeIsCapped(){
+        //arrange
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+        when(journalEntryRepository.findDtosWithFilters(any(), any(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        //act
+        journalEntryService.getJournalEntries(filterJournalEntryDto, null, Integer.MAX_VALUE);
+
+        //assert
+        verify(journalEntryRepository).findDtosWithFilters(isNull(), isNull(), isNull(), isNull(), isNull(), eq(501));
+    }
+
+    @Test
+    void givenMalformedPageToken_whenGettingJournalEntries_thenThrowException(){
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+
+        //assert
+        final InvalidPageTokenException exception = assertThrows(
+                InvalidPageTokenException.class,
+
+                //act
+                () -> journalEntryService.getJournalEntries(filterJournalEntryDto, "not-a-token", null));
+
+        //assert
+        assertEquals(ErrorMessages.INVALID_PAGE_TOKEN, exception.getMessage());
+    }
+
+    @Test
+    void givenFilterCriteriaWithoutBucket_whenGettingJournalEntryStats_thenCountsAreBucketedByDay(){
+        //arrange
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(List.of(Status.DRAFT), null, null, "David Marshall");
+        final JournalEntryStatsDto journalEntryStats = new JournalEntryStatsDto(1, Map.of(Status.DRAFT, 1L), List.of(new AccountantCountDto(1L, "David Marshall", 1L)), 0, Map.of());
+        when(journalEntryRepository.countWithFilters(List.of(Status.DRAFT), null, null, "David Marshall", DateBucket.DAY))
+                .thenReturn(journalEntryStats);
+
+        //act
+        final JournalEntryStatsDto returnedJournalEntryStats = journalEntryService.getJournalEntryStats(filterJournalEntryDto, null);
+
+        //assert
+        assertEquals(journalEntryStats, returnedJournalEntryStats);
+    }
+
+    @Test
+    void givenFilerCriteriaWithReviewedDataBeforeDraftedDate_whenGettingJournalEntryStats_thenThrowException(){
+        final LocalDateTime now = LocalDateTime.now();
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, now, now.minusDays(3), null);
+
+        //assert
+        final InvalidDateRangeException exception = assertThrows(
+                InvalidDateRangeException.class,
+
+                //act
+                () -> journalEntryService.getJournalEntryStats(filterJournalEntryDto, DateBucket.MONTH));
+
+        //assert
+        assertEquals(ErrorMessages.INVALID_DATE_RANGE, exception.getMessage());
+        verifyNoInteractions(journalEntryRepository);
+    }
 
-        when(journalEntryRepository.findWithFilters(anyList(), any(), any(), any())).thenReturn(filteredJournalEntries);
+    @Test
+    void givenBlankSearchText_whenSearchingJournalEntries_thenThrowException(){
+        //act
+        final InvalidSearchQueryException exception = assertThrows(InvalidSearchQueryException.class,
+                () -> journalEntryService.searchJournalEntries(" ", null, null));
+
+        //assert
+        assertEquals(ErrorMessages.SEARCH_TEXT_MISSING, exception.getMessage());
+        verify(journalEntryRepository, never()).searchWithText(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void givenPageAndPageSize_whenSearchingJournalEntries_thenRepositoryIsQueriedWithTheOffsetOfThePage(){
+        //arrange
+        final JournalEntrySearchPageDto searchPage = new JournalEntrySearchPageDto(List.of(), 12);
+        when(journalEntryRepository.searchWithText("invoice", 10, 5)).thenReturn(searchPage);
 
-        final List<JournalEntryDto> returnedFilteredJournalEntryDtos = journalEntryService.getJournalEntries(filterJournalEntryDto);
+        //act
+        final JournalEntrySearchPageDto result = journalEntryService.searchJournalEntries("invoice", 2, 5);
 
-         assertEquals(2, returnedFilteredJournalEntryDtos.size());
+        //assert
+        assertSame(searchPage, result);
+    }
+
+    @Test
+    void givenFilterCriteria_whenExportingAsNdjson_thenOneJsonObjectIsWrittenPerLine() throws IOException{
+        //arrange
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(List.of(Status.DRAFT), null, null, null);
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 5, 28, 8, 30);
+        when(journalEntryRepository.streamDtosWithFilters(List.of(Status.DRAFT), null, null, null)).thenReturn(Stream.of(
+                new JournalEntryDto(1L, "test scenario 1", Status.DRAFT, draftedDate, null, null, null, null, null, 0L),
+                new JournalEntryDto(2L, "test scenario 2", Status.DRAFT, draftedDate, null, null, null, null, null, 0L)));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //act
+        journalEntryService.exportJournalEntries(filterJournalEntryDto, ExportFormat.NDJSON, outputStream);
+
+        //assert
+        final String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"scenario\":\"test scenario 1\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,\"scenario\":\"test scenario 2\""));
+    }
+
+    @Test
+    void givenFilterCriteria_whenExportingAsCsv_thenHeaderAndQuotedRowsAreWritten() throws IOException{
+        //arrange
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+        final LocalDateTime draftedDate = LocalDateTime.of(2025, 5, 28, 8, 30);
+        when(journalEntryRepository.streamDtosWithFilters(null, null, null, null)).thenReturn(Stream.of(
+                new JournalEntryDto(1L, "bought supplies, paid \"cash\"", Status.IN_REVIEW, draftedDate, null, null, "David Marshall", null, null, 2L)));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //act
+        journalEntryService.exportJournalEntries(filterJournalEntryDto, ExportFormat.CSV, outputStream);
+
+        //assert
+        assertEquals(JournalEntryCsv.HEADER
+                        + "1,\"bought supplies, paid \"\"cash\"\"\",IN_REVIEW,2025-05-28T08:30,,,David Marshall,,,2\r\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void givenFilerCriteriaWithReviewedDataBeforeDraftedDate_whenExporting_thenThrowExceptionBeforeWriting(){
+        final LocalDateTime now = LocalDateTime.now();
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, now, now.minusDays(3), null);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //assert
+        assertThrows(InvalidDateRangeException.class,
+
+                //act
+                () -> journalEntryService.exportJournalEntries(filterJournalEntryDto, ExportFormat.CSV, outputStream));
+
+        //assert
+        assertEquals(0, outputStream.size());
+        verifyNoInteractions(journalEntryRepository);
+    }
+
+    @Test
+    void givenMeteredService_whenGettingJournalEntries_thenCallIsTimedAndPageSizeIsRecorded(){
+        //arrange
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final JournalEntryService meteredJournalEntryService = metered(meterRegistry);
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+        when(journalEntryRepository.findDtosWithFilters(any(), any(), any(), any(), any(), anyInt())).thenReturn(List.of(
+                new JournalEntryDto(1L, "test scenario 1", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null)));
+
+        //act
+        meteredJournalEntryService.getJournalEntries(filterJournalEntryDto, null, null);
+
+        //assert
+        assertEquals(1, meterRegistry.get(JournalEntryServiceMetrics.SERVICE_TIMER)
+                .tags("method", "getJournalEntries", "outcome", "SUCCESS", "exception", "none").timer().count());
+        assertEquals(1, meterRegistry.get(JournalEntryServiceMetrics.PAGE_ENTRIES_SUMMARY).summary().totalAmount());
+    }
+
+    @Test
+    void givenMeteredService_whenCallFails_thenCallIsTimedWithExceptionType(){
+        //arrange
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final JournalEntryService meteredJournalEntryService = metered(meterRegistry);
+        final FilterJournalEntryDto filterJournalEntryDto = new FilterJournalEntryDto(null, null, null, null);
+
+        //act
+        assertThrows(InvalidPageTokenException.class,
+                () -> meteredJournalEntryService.getJournalEntries(filterJournalEntryDto, "not-a-token", null));
+
+        //assert
+        assertEquals(1, meterRegistry.get(JournalEntryServiceMetrics.SERVICE_TIMER)
+                .tags("method", "getJournalEntries", "outcome", "ERROR", "exception", "InvalidPageTokenException").timer().count());
+        assertEquals(0, meterRegistry.get(JournalEntryServiceMetrics.PAGE_ENTRIES_SUMMARY).summary().count());
+    }
+
+    private JournalEntryService metered(final MeterRegistry meterRegistry) {
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(journalEntryService);
+        proxyFactory.addAspect(new JournalEntryServiceMetrics(meterRegistry));
+        return proxyFactory.getProxy();
     }
 
 
@@ -95,9 +358,28 @@ public class JournalEntryServiceTest {
 
         //assert
         assertEquals(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND, exception.getMessage());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_NOT_FOUND, exception.getErrorCode());
+        //assert (business rejections skip the stack trace capture)
+        assertEquals(0, exception.getStackTrace().length);
     }
 
 
+    @Test
+    void givenArchivedJournalEntry_whenGettingJournalEntry_thenReturnArchivedJournalEntry(){
+        //arrange
+        final long journalEntryId = 1L;
+        final JournalEntryDto archivedJournalEntryDto = new JournalEntryDto(journalEntryId, "test scenario", Status.APPROVED,
+                LocalDateTime.now(), null, null, null, null, null, 2L);
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.empty());
+        when(journalEntryRepository.findArchivedDtoById(journalEntryId)).thenReturn(Optional.of(archivedJournalEntryDto));
+
+        //act
+        final JournalEntryDto journalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+
+        //assert
+        assertEquals(archivedJournalEntryDto, journalEntryDto);
+    }
+
     @Test
     void givenValidJournalEntryId_whenGettingJournalEntry_thenReturnJournalEntry(){
 
@@ -160,11 +442,7 @@ public class JournalEntryServiceTest {
         final JournalEntry inreviewJournalEntry = new JournalEntry(journalEntryId, scenario, Status.IN_REVIEW, draftedDate);
         inreviewJournalEntry.setReviewNotes(reviewNotes);
 
-        final JournalEntry updatedReviewNotesJournalEntry = new JournalEntry(journalEntryId, scenario, Status.IN_REVIEW, draftedDate);
-        updatedReviewNotesJournalEntry.setReviewNotes(updatedReviewNotes);
-
         when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(inreviewJournalEntry));
-        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(updatedReviewNotesJournalEntry);
 
         final JournalEntryDto updatingJournalEntryDto = new JournalEntryDto(journalEntryId, scenario, Status.IN_REVIEW, draftedDate, null, null, null, updatedReviewNotes, null);
 
@@ -178,15 +456,10 @@ public class JournalEntryServiceTest {
         assertNotNull(updatedJournalEntryDto.draftedDate());
         assertEquals(updatedReviewNotes, updatedJournalEntryDto.reviewNotes());
 
-        //assert (if save on the repo is called with updated state object)
-        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
-        verify(journalEntryRepository).save(captor.capture());
-        final JournalEntry capturedEntry = captor.getValue();
-        assertEquals(journalEntryId, capturedEntry.getId());
-        assertEquals(Status.IN_REVIEW, capturedEntry.getStatus());
-        assertEquals(scenario, capturedEntry.getScenario());
-        assertNotNull(capturedEntry.getDraftedDate());
-        assertEquals(updatedReviewNotes, capturedEntry.getReviewNotes());
+        //assert (if the managed entry is changed in place and flushed, without a merge)
+        assertEquals(updatedReviewNotes, inreviewJournalEntry.getReviewNotes());
+        verify(journalEntryRepository).flush();
+        verify(journalEntryRepository, never()).save(any(JournalEntry.class));
     }
     //
 
@@ -283,6 +556,42 @@ public class JournalEntryServiceTest {
         assertEquals(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND, exception.getMessage());
     }
 
+    @Test
+    void givenArchivedJournalEntry_whenUpdating_thenThrowArchivedException(){
+        //arrange
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(5L, "test scenario", Status.APPROVED, LocalDateTime.now(), null, null, null, null, null);
+        when(journalEntryRepository.findById(5L)).thenReturn(Optional.empty());
+        when(journalEntryRepository.findArchivedIds(List.of(5L))).thenReturn(List.of(5L));
+
+        //assert
+        final JournalEntryArchivedException exception =  assertThrows(
+                JournalEntryArchivedException.class,
+
+                //act
+                () -> journalEntryService.updateJournalEntry(5L, journalEntryDto));
+
+        //assert
+        assertEquals(ErrorMessages.JOURNAL_ENTRY_ARCHIVED, exception.getMessage());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_ARCHIVED, exception.getErrorCode());
+    }
+
+    @Test
+    void givenArchivedJournalEntry_whenApprovedInBatch_thenItIsRejectedAsArchived(){
+        //arrange
+        when(journalEntryRepository.findAllById(List.of(5L, Long.MAX_VALUE))).thenReturn(List.of());
+        when(journalEntryRepository.findArchivedIds(List.of(5L, Long.MAX_VALUE))).thenReturn(List.of(5L));
+
+        //act
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.approveJournalEntries(List.of(5L, Long.MAX_VALUE));
+
+        //assert
+        assertEquals(2, batchResultDto.rejected());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_ARCHIVED, batchResultDto.items().get(0).errorCode());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_NOT_FOUND, batchResultDto.items().get(1).errorCode());
+        verifyNoInteractions(journalEntryCounterRepository);
+    }
+
 
     @Test
     void givenDraftedJournalEntryWithScenario_whenUpdating_thenScenarioIdUpdated(){
@@ -294,10 +603,7 @@ public class JournalEntryServiceTest {
 
         final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.DRAFT, draftedDate);
 
-        final JournalEntry updatedScenarioJournalEntry = new JournalEntry(journalEntryId, updatedScenario, Status.DRAFT, draftedDate);
-
         when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftedJournalEntry));
-        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(updatedScenarioJournalEntry);
 
         final JournalEntryDto updatingJournalEntryDto = new JournalEntryDto(journalEntryId, updatedScenario, Status.DRAFT, draftedDate, null, null, null, null, null);
         //act
@@ -309,17 +615,109 @@ public class JournalEntryServiceTest {
         assertEquals(updatedScenario, updatedJournalEntryDto.scenario());
         assertNotNull(updatedJournalEntryDto.draftedDate());
 
-        //assert (if save on the repo is called with updated state object)
-        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
-        verify(journalEntryRepository).save(captor.capture());
-        final JournalEntry capturedEntry = captor.getValue();
-        assertEquals(journalEntryId, capturedEntry.getId());
-        assertEquals(Status.DRAFT, capturedEntry.getStatus());
-        assertEquals(updatedScenario, capturedEntry.getScenario());
-        assertNotNull(capturedEntry.getDraftedDate());
+        //assert (if the managed entry is changed in place and flushed, without a merge)
+        assertEquals(updatedScenario, draftedJournalEntry.getScenario());
+        verify(journalEntryRepository).flush();
+        verify(journalEntryRepository, never()).save(any(JournalEntry.class));
     }
 
 
+    @Test
+    void givenDraftedJournalEntryWithSameScenario_whenUpdating_thenNothingIsSaved(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final String scenario = "test scenario";
+        final LocalDateTime draftedDate = LocalDateTime.now();
+        final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.DRAFT, draftedDate);
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftedJournalEntry));
+
+        final JournalEntryDto updatingJournalEntryDto = new JournalEntryDto(journalEntryId, scenario, Status.DRAFT, draftedDate, null, null, null, null, null);
+        //act
+        final JournalEntryDto updatedJournalEntryDto = journalEntryService.updateJournalEntry(journalEntryId, updatingJournalEntryDto);
+
+        //assert
+        assertEquals(scenario, updatedJournalEntryDto.scenario());
+        verify(journalEntryRepository, never()).flush();
+        verify(journalEntrySearchIndex, never()).indexAfterCommit(any());
+    }
+
+    @Test
+    void givenDraftedJournalEntryAndPatchWithScenarioOnly_whenPatching_thenOnlyScenarioIsUpdated(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final String patchedScenario = "test patched scenario";
+        final LocalDateTime draftedDate = LocalDateTime.now();
+        final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.DRAFT, draftedDate);
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftedJournalEntry));
+
+        //act
+        final JournalEntryDto patchedJournalEntryDto =
+                journalEntryService.patchJournalEntry(journalEntryId, new JournalEntryPatchDto(patchedScenario, null, null));
+
+        //assert
+        assertEquals(patchedScenario, patchedJournalEntryDto.scenario());
+        assertEquals(Status.DRAFT, patchedJournalEntryDto.status());
+        assertEquals(draftedDate, patchedJournalEntryDto.draftedDate());
+        assertEquals(patchedScenario, draftedJournalEntry.getScenario());
+        assertNull(draftedJournalEntry.getReviewNotes());
+        verify(journalEntryRepository).flush();
+        verify(journalEntryRepository, never()).save(any(JournalEntry.class));
+    }
+
+    @Test
+    void givenInReviewJournalEntryAndUnchangedPatch_whenPatching_thenNothingIsSaved(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(inReviewJournalEntry));
+
+        //act
+        final JournalEntryDto patchedJournalEntryDto =
+                journalEntryService.patchJournalEntry(journalEntryId, new JournalEntryPatchDto("test scenario", "test review notes", null));
+
+        //assert
+        assertEquals("test review notes", patchedJournalEntryDto.reviewNotes());
+        verify(journalEntryRepository, never()).flush();
+    }
+
+    @Test
+    void givenDraftedJournalEntryAndPatchWithReviewNotes_whenPatching_thenThrowException(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.DRAFT, LocalDateTime.now());
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftedJournalEntry));
+
+        //assert
+        final InvalidJournalEntryStateException exception = assertThrows(
+                InvalidJournalEntryStateException.class,
+
+                //act
+                () -> journalEntryService.patchJournalEntry(journalEntryId, new JournalEntryPatchDto(null, "test review notes", null))
+        );
+        //assert
+        assertEquals(ErrorMessages.REVIEW_NOTES_CAN_ONLY_BE_UPDATED_WHEN_JOURNAL_ENTRY_STATUS_IS_IN_REVIEW, exception.getMessage());
+        verify(journalEntryRepository, never()).flush();
+    }
+
+    @Test
+    void givenPatchWithBlankScenario_whenPatching_thenThrowException(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.DRAFT, LocalDateTime.now());
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftedJournalEntry));
+
+        //assert
+        final MissingScenarioException exception = assertThrows(
+                MissingScenarioException.class,
+
+                //act
+                () -> journalEntryService.patchJournalEntry(journalEntryId, new JournalEntryPatchDto(" ", null, null))
+        );
+        //assert
+        assertEquals(ErrorMessages.SCENARIO_MISSING, exception.getMessage());
+    }
+
     @Test
     void givenJournalEntryNotInReviewedState_whenApproving_thenThrowException(){
         //arrange
@@ -381,22 +779,17 @@ public class JournalEntryServiceTest {
         final String scenario = "test scenario";
         final LocalDateTime draftedDate = LocalDateTime.now();
         final LocalDateTime reviewedDate = draftedDate.plusDays(2);
-        final LocalDateTime approvedDate = reviewedDate.plusDays(3);
 
-        final JournalEntry reviewedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.REVIEWED, draftedDate);
         final String reviewNotes = "test review notes";
         final String approveNotes = "test approve notes";
+        final JournalEntry reviewedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.REVIEWED, draftedDate);
         reviewedJournalEntry.setReviewNotes(reviewNotes);
         reviewedJournalEntry.setReviewedDate(reviewedDate);
         reviewedJournalEntry.setApproveNotes(approveNotes);
-        final JournalEntry approvingJournalEntry = new JournalEntry(journalEntryId, scenario, Status.APPROVED, draftedDate);
-        approvingJournalEntry.setReviewNotes(reviewNotes);
-        approvingJournalEntry.setReviewedDate(reviewedDate);
-        approvingJournalEntry.setApprovedDate(approvedDate);
-        approvingJournalEntry.setApproveNotes(approveNotes);
+        reviewedJournalEntry.setVersion(2L);
 
-        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(reviewedJournalEntry));
-        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(approvingJournalEntry);
+        when(journalEntryRepository.approveAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(reviewedJournalEntry, Status.APPROVED)));
 
         final JournalEntryDto approvedJournalEntryDto = journalEntryService.approveJournalEntry(journalEntryId);
 
@@ -409,20 +802,11 @@ public class JournalEntryServiceTest {
         assertNotNull(approvedJournalEntryDto.draftedDate());
         assertNotNull(approvedJournalEntryDto.reviewedDate());
         assertNotNull(approvedJournalEntryDto.approvedDate());
+        assertEquals(3L, approvedJournalEntryDto.version());
 
-        //assert (if save on the repo is called with updated state object)
-        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
-        verify(journalEntryRepository).save(captor.capture());
-        final JournalEntry capturedEntry = captor.getValue();
-        assertNotNull(capturedEntry.getScenario());
-        assertEquals(scenario, capturedEntry.getScenario());
-        assertEquals(reviewNotes, capturedEntry.getReviewNotes());
-        assertEquals(approveNotes, capturedEntry.getApproveNotes());
-        assertEquals(Status.APPROVED, capturedEntry.getStatus());
-        assertNotNull(capturedEntry.getDraftedDate());
-        assertNotNull(capturedEntry.getReviewedDate());
-        assertNotNull(capturedEntry.getApprovedDate());
-
+        //assert (the transition is a single guarded update, the entry is neither read nor locked before it)
+        verify(journalEntryRepository).approveAll(eq(List.of(journalEntryId)), any(LocalDateTime.class));
+        verifyNoMoreInteractions(journalEntryRepository);
     }
 
 
@@ -477,17 +861,13 @@ public class JournalEntryServiceTest {
         //arrange
         final Long journalEntryId = 1L;
         final String scenario = "test scenario";
-        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, scenario, Status.IN_REVIEW, LocalDateTime.now());
         final String reviewNotes = "test review notes";
         final LocalDateTime draftedDate = LocalDateTime.now();
-        final LocalDateTime reviewedDate = draftedDate.plusDays(2);
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, scenario, Status.IN_REVIEW, draftedDate);
         inReviewJournalEntry.setReviewNotes(reviewNotes);
-        final JournalEntry savedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.REVIEWED, draftedDate);
-        savedJournalEntry.setReviewedDate(reviewedDate);
-        savedJournalEntry.setReviewNotes(reviewNotes);
 
-        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(inReviewJournalEntry));
-        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(savedJournalEntry);
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
 
         final JournalEntryDto reviewedJournalEntryDto = journalEntryService.reviewJournalEntry(journalEntryId);
 
@@ -499,16 +879,196 @@ public class JournalEntryServiceTest {
         assertNotNull(reviewedJournalEntryDto.draftedDate());
         assertNotNull(reviewedJournalEntryDto.reviewedDate());
 
-        //assert (if save on the repo is called with updated state object)
-        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
-        verify(journalEntryRepository).save(captor.capture());
-        final JournalEntry capturedEntry = captor.getValue();
-        assertNotNull(capturedEntry.getScenario());
-        assertEquals(scenario, capturedEntry.getScenario());
-        assertEquals(Status.REVIEWED, capturedEntry.getStatus());
-        assertNotNull(capturedEntry.getReviewedDate());
-        assertNotNull(capturedEntry.getDraftedDate());
+        //assert (the transition is a single guarded update, the entry is neither read nor locked before it)
+        verify(journalEntryRepository).reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class));
+        verifyNoMoreInteractions(journalEntryRepository);
+    }
+
+    @Test
+    void givenJournalEntryInReviewWithAccountant_whenReviewed_thenEntryIsMovedBetweenTheAccountantsStatusCounters(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        inReviewJournalEntry.setAssignedAccountant(new Accountant(7L, "David Marshall"));
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
+
+        //act
+        journalEntryService.reviewJournalEntry(journalEntryId);
+
+        //assert
+        verify(journalEntryCounterRepository).addToCount(Status.IN_REVIEW.name(), 7L, -1);
+        verify(journalEntryCounterRepository).addToCount(Status.REVIEWED.name(), 7L, 1);
+        verifyNoMoreInteractions(journalEntryCounterRepository);
+    }
 
+    @Test
+    void givenJournalEntryInReview_whenReviewed_thenReviewedEntryIsPushedToItsSubscribers(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
+
+        //act
+        final JournalEntryDto reviewedJournalEntryDto = journalEntryService.reviewJournalEntry(journalEntryId);
+
+        //assert
+        verify(journalEntryUpdateHub).publishAfterCommit(List.of(reviewedJournalEntryDto));
+    }
+
+    @Test
+    void givenMaximumSubscribersReached_whenSubscribingToJournalEntryUpdates_thenThrowException(){
+        //arrange
+        final JournalEntryUpdateHub hub = new JournalEntryUpdateHub();
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 1);
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(1L, "test scenario", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null, 0L);
+        hub.subscribe(1L, () -> journalEntryDto);
+
+        //act
+        final TooManySubscribersException exception = assertThrows(TooManySubscribersException.class,
+                () -> hub.subscribe(2L, () -> journalEntryDto));
+
+        //assert
+        assertEquals(ErrorMessages.TOO_MANY_SUBSCRIBERS, exception.getMessage());
+        assertEquals(1, hub.getSubscriberCount());
+        hub.destroy();
+    }
+
+    @Test
+    void givenNonexistentJournalEntry_whenSubscribingToJournalEntryUpdates_thenSubscriberIsNotKept(){
+        //arrange
+        final JournalEntryUpdateHub hub = new JournalEntryUpdateHub();
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 1);
+
+        //act
+        assertThrows(JournalEntryNotFoundException.class, () -> hub.subscribe(1L, () -> {
+            throw new JournalEntryNotFoundException(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND);
+        }));
+
+        //assert
+        assertEquals(0, hub.getSubscriberCount());
+        hub.destroy();
+    }
+
+    @Test
+    void givenIdleSubscriber_whenSendingHeartbeats_thenSubscriberIsKept(){
+        //arrange
+        final JournalEntryUpdateHub hub = new JournalEntryUpdateHub();
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 1);
+        // a negative interval makes the subscriber idle even if its first event was just sent
+        ReflectionTestUtils.setField(hub, "heartbeatInterval", Duration.ofMinutes(-1));
+        hub.subscribe(1L, () -> new JournalEntryDto(1L, "test scenario", Status.DRAFT, LocalDateTime.now(), null, null, null, null, null, 0L));
+
+        //act
+        hub.sendHeartbeats();
+
+        //assert (a quiet stream is kept open, only a failed write unsubscribes the client)
+        assertEquals(1, hub.getSubscriberCount());
+        hub.destroy();
+    }
+
+    @Test
+    void givenJournalEntryInReviewWithAccountant_whenReviewed_thenTransitionEventIsAppended(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        inReviewJournalEntry.setAssignedAccountant(new Accountant(7L, "David Marshall"));
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
+
+        //act
+        journalEntryService.reviewJournalEntry(journalEntryId);
+
+        //assert
+        final ArgumentCaptor<List<JournalEntryEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(journalEntryChangeFeed).append(captor.capture());
+        final JournalEntryEvent journalEntryEvent = captor.getValue().get(0);
+        assertEquals(journalEntryId, journalEntryEvent.getJournalEntryId());
+        assertEquals(Status.IN_REVIEW, journalEntryEvent.getFromStatus());
+        assertEquals(Status.REVIEWED, journalEntryEvent.getToStatus());
+        assertEquals(7L, journalEntryEvent.getAccountantId());
+        assertNotNull(journalEntryEvent.getOccurredAt());
+    }
+
+    @Test
+    void givenJournalEntryInReview_whenReviewIsRejected_thenCountersAreNotChanged(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry draftJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.DRAFT, LocalDateTime.now());
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftJournalEntry));
+
+        //act
+        assertThrows(InvalidJournalEntryStateException.class, () -> journalEntryService.reviewJournalEntry(journalEntryId));
+
+        //assert
+        verifyNoInteractions(journalEntryCounterRepository);
+        verifyNoInteractions(journalEntryChangeFeed);
+    }
+
+    @Test
+    void givenDraftsForTwoAccountants_whenAssignedInBatch_thenCounterChangesAreAppliedOncePerCounter(){
+        //arrange
+        final Accountant accountant = new Accountant(7L, "David Marshall");
+        when(accountantRepository.findById(7L)).thenReturn(Optional.of(accountant));
+        when(journalEntryRepository.assignAccountantToAll(List.of(1L, 2L), 7L)).thenReturn(List.of(
+                assigned(new JournalEntry(1L, "test scenario 1", Status.DRAFT, LocalDateTime.now()), accountant),
+                assigned(new JournalEntry(2L, "test scenario 2", Status.DRAFT, LocalDateTime.now()), accountant)));
+
+        //act
+        journalEntryService.assignAccountantToJournalEntries(List.of(1L, 2L), 7L);
+
+        //assert
+        verify(journalEntryCounterRepository).addToCount(Status.DRAFT.name(), JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID, -2);
+        verify(journalEntryCounterRepository).addToCount(Status.IN_REVIEW.name(), 7L, 2);
+        verifyNoMoreInteractions(journalEntryCounterRepository);
+    }
+
+    @Test
+    void givenNoCursorAndNoWait_whenGettingJournalEntryChanges_thenFeedIsReadFromTheStartWithoutWaiting(){
+        //arrange
+        final JournalEntryChangesDto journalEntryChanges = new JournalEntryChangesDto(List.of(), 0);
+        when(journalEntryChangeFeed.read(0, 50, Duration.ZERO)).thenReturn(journalEntryChanges);
+
+        //act
+        final JournalEntryChangesDto result = journalEntryService.getJournalEntryChanges(null, null, null);
+
+        //assert
+        assertSame(journalEntryChanges, result);
+    }
+
+    @Test
+    void givenStatusAndAccountant_whenCountingJournalEntries_thenCounterShardsAreSummed(){
+        //arrange
+        when(journalEntryCounterRepository.sumByStatusAndAccountantId(Status.IN_REVIEW, 7L)).thenReturn(12L);
+        when(journalEntryCounterRepository.sumByStatus(Status.IN_REVIEW)).thenReturn(30L);
+
+        //act + assert
+        assertEquals(12, journalEntryService.countJournalEntries(Status.IN_REVIEW, 7L));
+        assertEquals(0, journalEntryService.countJournalEntries(Status.IN_REVIEW, 8L));
+        assertEquals(30, journalEntryService.countJournalEntries(Status.IN_REVIEW, null));
+    }
+
+    @Test
+    void givenJournalEntryChangedConcurrently_whenReviewed_thenThrowException(){
+        //arrange (the guarded update matched no row although the entry read after it is reviewable)
+        final Long journalEntryId = 1L;
+        final JournalEntry journalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        journalEntry.setReviewNotes("test review notes");
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class))).thenReturn(List.of());
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(journalEntry));
+
+        //assert
+        final JournalEntryTransitionConflictException exception = assertThrows(JournalEntryTransitionConflictException.class,
+
+                //act
+                () -> journalEntryService.reviewJournalEntry(journalEntryId));
+        assertEquals(ErrorMessages.JOURNAL_ENTRY_TRANSITION_CONFLICT, exception.getMessage());
+        verifyNoInteractions(journalEntryCounterRepository);
+        verifyNoInteractions(journalEntryChangeFeed);
     }
 
 
@@ -519,6 +1079,7 @@ public class JournalEntryServiceTest {
         final JournalEntry journalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
         final Long accountantId = 1L;
 
+        when(accountantRepository.findById(accountantId)).thenReturn(Optional.of(new Accountant(accountantId, "David Marshall")));
         when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(journalEntry));
 
         //assert
@@ -565,17 +1126,14 @@ public class JournalEntryServiceTest {
         //arrange
         final Long journalEntryId = 1L;
         final String scenario = "test scenario";
-        final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.DRAFT, LocalDateTime.now());
-
         final Long accountantId = 1L;
         final String accountantName = "David Marshall";
         final Accountant accountant = new Accountant(accountantId, accountantName);
-        final JournalEntry savedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.IN_REVIEW, LocalDateTime.now());
-        savedJournalEntry.setAssignedAccountant(accountant);
+        final JournalEntry draftedJournalEntry = new JournalEntry(journalEntryId, scenario, Status.DRAFT, LocalDateTime.now());
 
-        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(draftedJournalEntry));
-        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(savedJournalEntry);
         when(accountantRepository.findById(accountantId)).thenReturn(Optional.of(accountant));
+        when(journalEntryRepository.assignAccountantToAll(List.of(journalEntryId), accountantId))
+                .thenReturn(List.of(assigned(draftedJournalEntry, accountant)));
 
         final JournalEntryDto updatedJournalEntryDto = journalEntryService.assignAccountantToJournalEntry(journalEntryId, accountantId);
 
@@ -585,15 +1143,9 @@ public class JournalEntryServiceTest {
         assertEquals(Status.IN_REVIEW, updatedJournalEntryDto.status());
         assertEquals(accountantName, updatedJournalEntryDto.assignedAccountant());
 
-        //assert
-        final ArgumentCaptor<JournalEntry> captor = ArgumentCaptor.forClass(JournalEntry.class);
-        verify(journalEntryRepository).save(captor.capture());
-        final JournalEntry capturedEntry = captor.getValue();
-        assertNotNull(capturedEntry.getScenario());
-        assertEquals(scenario, capturedEntry.getScenario());
-        assertEquals(Status.IN_REVIEW, capturedEntry.getStatus());
-        assertNotNull(capturedEntry.getDraftedDate());
-        assertEquals(accountantName, capturedEntry.getAssignedAccountant().getName());
+        //assert (the transition is a single guarded update, the entry is neither read nor locked before it)
+        verify(journalEntryRepository).assignAccountantToAll(List.of(journalEntryId), accountantId);
+        verifyNoMoreInteractions(journalEntryRepository);
     }
 
 
@@ -648,4 +1200,311 @@ public class JournalEntryServiceTest {
         //assert
         verify(journalEntryRepository, times(1)).save(any(JournalEntry.class));
     }
+
+    @Test
+    void givenJournalEntryDetails_whenJournalEntryIsCreated_thenUnassignedDraftCounterIsIncremented(){
+        //arrange
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(null, "test scenario", null, null, null, null, null, null, null);
+        when(journalEntryRepository.save(any(JournalEntry.class)))
+                .thenReturn(new JournalEntry(1L, "test scenario", Status.DRAFT, LocalDateTime.now()));
+
+        //act
+        journalEntryService.createJournalEntry(journalEntryDto);
+
+        //assert
+        verify(journalEntryCounterRepository).addToCount(Status.DRAFT.name(), JournalEntryCounterId.UNASSIGNED_ACCOUNTANT_ID, 1);
+    }
+
+    @Test
+    void givenJournalEntryDetails_whenJournalEntryIsCreated_thenItIsAddedToTheSearchIndex(){
+        //arrange
+        final JournalEntryDto journalEntryDto = new JournalEntryDto(null, "test scenario", null, null, null, null, null, null, null);
+        when(journalEntryRepository.save(any(JournalEntry.class)))
+                .thenReturn(new JournalEntry(1L, "test scenario", Status.DRAFT, LocalDateTime.now()));
+
+        //act
+        final JournalEntryDto createdJournalEntryDto = journalEntryService.createJournalEntry(journalEntryDto);
+
+        //assert
+        verify(journalEntrySearchIndex).indexAfterCommit(List.of(createdJournalEntryDto));
+    }
+
+    @Test
+    void givenJournalEntriesWithAndWithoutScenario_whenCreatedInBatch_thenOnlyEntriesWithScenarioAreSaved(){
+        //arrange
+        final List<JournalEntryDto> journalEntryDtos = List.of(
+                new JournalEntryDto(null, "test scenario 1", null, null, null, null, null, null, null),
+                new JournalEntryDto(null, " ", null, null, null, null, null, null, null),
+                new JournalEntryDto(null, "test scenario 3", null, null, null, null, null, null, null)
+        );
+        when(journalEntryRepository.saveAllInBatches(anyList())).thenAnswer(invocation -> {
+            final List<JournalEntry> drafts = invocation.getArgument(0);
+            for (int i = 0; i < drafts.size(); i++) {
+                drafts.get(i).setId(i + 1L);
+            }
+            return drafts;
+        });
+
+        //act
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.createJournalEntries(journalEntryDtos);
+
+        //assert
+        assertEquals(2, batchResultDto.accepted());
+        assertEquals(1, batchResultDto.rejected());
+        assertTrue(batchResultDto.items().get(0).accepted());
+        assertEquals(1L, batchResultDto.items().get(0).id());
+        assertFalse(batchResultDto.items().get(1).accepted());
+        assertEquals(ErrorMessages.SCENARIO_MISSING, batchResultDto.items().get(1).error());
+        assertTrue(batchResultDto.items().get(2).accepted());
+        assertEquals(2L, batchResultDto.items().get(2).id());
+        assertEquals("test scenario 3", batchResultDto.items().get(2).journalEntry().scenario());
+
+        //assert (only the valid drafts are handed to the batch insert)
+        final ArgumentCaptor<List<JournalEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(journalEntryRepository).saveAllInBatches(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        for (final JournalEntry capturedEntry : captor.getValue()) {
+            assertEquals(Status.DRAFT, capturedEntry.getStatus());
+            assertNotNull(capturedEntry.getDraftedDate());
+        }
+        verify(journalEntryRepository, never()).save(any(JournalEntry.class));
+    }
+
+    @Test
+    void givenJournalEntriesInMixedStates_whenReviewedInBatch_thenOnlyTheEntriesNotUpdatedAreReadToRejectThem(){
+        //arrange
+        final JournalEntry reviewableJournalEntry = new JournalEntry(1L, "test scenario 1", Status.IN_REVIEW, LocalDateTime.now());
+        reviewableJournalEntry.setReviewNotes("test review notes");
+        final JournalEntry missingReviewNotesJournalEntry = new JournalEntry(2L, "test scenario 2", Status.IN_REVIEW, LocalDateTime.now());
+        final Long nonexistentJournalEntryId = Long.MAX_VALUE;
+        when(journalEntryRepository.reviewAll(eq(List.of(1L, 2L, nonexistentJournalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(reviewableJournalEntry, Status.REVIEWED)));
+        when(journalEntryRepository.findAllById(List.of(2L, nonexistentJournalEntryId))).thenReturn(List.of(missingReviewNotesJournalEntry));
+
+        //act
+        final JournalEntryBatchResultDto batchResultDto =
+                journalEntryService.reviewJournalEntries(List.of(1L, 2L, nonexistentJournalEntryId, 1L));
+
+        //assert
+        assertEquals(1, batchResultDto.accepted());
+        assertEquals(2, batchResultDto.rejected());
+        assertEquals(3, batchResultDto.items().size());
+        assertEquals(1L, batchResultDto.items().get(0).id());
+        assertEquals(Status.REVIEWED, batchResultDto.items().get(0).journalEntry().status());
+        assertNotNull(batchResultDto.items().get(0).journalEntry().reviewedDate());
+        assertEquals(ErrorMessages.REVIEW_NOTES_REQUIRED, batchResultDto.items().get(1).error());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_MISSING_REVIEW_NOTES, batchResultDto.items().get(1).errorCode());
+        assertEquals(ErrorMessages.JOURNAL_ENTRY_NOT_FOUND, batchResultDto.items().get(2).error());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_NOT_FOUND, batchResultDto.items().get(2).errorCode());
+        verify(journalEntryRepository, times(1)).reviewAll(anyList(), any(LocalDateTime.class));
+        verify(journalEntryRepository, never()).save(any(JournalEntry.class));
+    }
+
+    @Test
+    void givenEntryChangedConcurrently_whenReviewedInBatch_thenOnlyTheEntriesTheUpdateChangedAreAccepted(){
+        //arrange (the second entry was reviewable when read after the update, a concurrent change made the update skip it)
+        final JournalEntry changedJournalEntry = new JournalEntry(1L, "test scenario 1", Status.IN_REVIEW, LocalDateTime.now());
+        changedJournalEntry.setReviewNotes("test review notes");
+        changedJournalEntry.setAssignedAccountant(new Accountant(7L, "David Marshall"));
+        changedJournalEntry.setVersion(3L);
+        final JournalEntry skippedJournalEntry = new JournalEntry(2L, "test scenario 2", Status.IN_REVIEW, LocalDateTime.now());
+        skippedJournalEntry.setReviewNotes("test review notes");
+        skippedJournalEntry.setAssignedAccountant(new Accountant(7L, "David Marshall"));
+        skippedJournalEntry.setVersion(5L);
+        when(journalEntryRepository.reviewAll(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(changedJournalEntry, Status.REVIEWED)));
+        when(journalEntryRepository.findAllById(List.of(2L))).thenReturn(List.of(skippedJournalEntry));
+
+        //act
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.reviewJournalEntries(List.of(1L, 2L));
+
+        //assert
+        assertEquals(1, batchResultDto.accepted());
+        assertEquals(Status.REVIEWED, batchResultDto.items().get(0).journalEntry().status());
+        assertEquals(4L, batchResultDto.items().get(0).journalEntry().version());
+        assertEquals(ErrorCode.JOURNAL_ENTRY_TRANSITION_CONFLICT, batchResultDto.items().get(1).errorCode());
+        assertEquals(ErrorMessages.JOURNAL_ENTRY_TRANSITION_CONFLICT, batchResultDto.items().get(1).error());
+        verify(journalEntryCounterRepository).addToCount(Status.IN_REVIEW.name(), 7L, -1);
+        verify(journalEntryCounterRepository).addToCount(Status.REVIEWED.name(), 7L, 1);
+        verifyNoMoreInteractions(journalEntryCounterRepository);
+        final ArgumentCaptor<List<JournalEntryEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(journalEntryChangeFeed).append(captor.capture());
+        assertEquals(List.of(1L), captor.getValue().stream().map(JournalEntryEvent::getJournalEntryId).toList());
+        verify(journalEntryUpdateHub).publishAfterCommit(List.of(batchResultDto.items().get(0).journalEntry()));
+    }
+
+    @Test
+    void givenReviewedJournalEntries_whenApprovedInBatch_thenEntriesWithoutApproveNotesAreRejected(){
+        //arrange
+        final JournalEntry approvableJournalEntry = new JournalEntry(1L, "test scenario 1", Status.REVIEWED, LocalDateTime.now());
+        approvableJournalEntry.setApproveNotes("test approve notes");
+        final JournalEntry missingApproveNotesJournalEntry = new JournalEntry(2L, "test scenario 2", Status.REVIEWED, LocalDateTime.now());
+        when(journalEntryRepository.approveAll(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(approvableJournalEntry, Status.APPROVED)));
+        when(journalEntryRepository.findAllById(List.of(2L))).thenReturn(List.of(missingApproveNotesJournalEntry));
+
+        //act
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.approveJournalEntries(List.of(1L, 2L));
+
+        //assert
+        assertEquals(1, batchResultDto.accepted());
+        assertEquals(Status.APPROVED, batchResultDto.items().get(0).journalEntry().status());
+        assertEquals(ErrorMessages.APPROVE_NOTES_REQUIRED, batchResultDto.items().get(1).error());
+    }
+
+    @Test
+    void givenDraftedJournalEntries_whenAccountantIsAssignedInBatch_thenNonDraftEntriesAreRejected(){
+        //arrange
+        final Long accountantId = 1L;
+        final Accountant accountant = new Accountant(accountantId, "David Marshall");
+        final JournalEntry draftedJournalEntry = new JournalEntry(1L, "test scenario 1", Status.DRAFT, LocalDateTime.now());
+        final JournalEntry inReviewJournalEntry = new JournalEntry(2L, "test scenario 2", Status.IN_REVIEW, LocalDateTime.now());
+        when(accountantRepository.findById(accountantId)).thenReturn(Optional.of(accountant));
+        when(journalEntryRepository.assignAccountantToAll(List.of(1L, 2L), accountantId))
+                .thenReturn(List.of(assigned(draftedJournalEntry, accountant)));
+        when(journalEntryRepository.findAllById(List.of(2L))).thenReturn(List.of(inReviewJournalEntry));
+
+        //act
+        final JournalEntryBatchResultDto batchResultDto = journalEntryService.assignAccountantToJournalEntries(List.of(1L, 2L), accountantId);
+
+        //assert
+        assertEquals(1, batchResultDto.accepted());
+        assertEquals(Status.IN_REVIEW, batchResultDto.items().get(0).journalEntry().status());
+        assertEquals("David Marshall", batchResultDto.items().get(0).journalEntry().assignedAccountant());
+        assertEquals(ErrorMessages.ONLY_JOURNAL_ENTRY_WITH_STATUS_DRAFT_CAN_BE_ASSIGNED_TO_AN_ACCOUNTANT, batchResultDto.items().get(1).error());
+    }
+
+    @Test
+    void givenNonexistentAccountant_whenAssigningAccountantInBatch_thenThrowException(){
+        //arrange
+        final Long nonexistentAccountantId = Long.MAX_VALUE;
+        when(accountantRepository.findById(nonexistentAccountantId)).thenReturn(Optional.empty());
+
+        //assert
+        assertThrows(AccountantNotFoundException.class,
+
+                //act
+                () -> journalEntryService.assignAccountantToJournalEntries(List.of(1L), nonexistentAccountantId));
+        verifyNoInteractions(journalEntryRepository);
+    }
+
+    @Test
+    void givenJournalEntryAlreadyRetrieved_whenGettingItAgain_thenItIsServedFromCache(){
+        //arrange
+        final Long journalEntryId = 1L;
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(
+                new JournalEntry(journalEntryId, "test scenario", Status.DRAFT, LocalDateTime.now())));
+
+        //act
+        final JournalEntryDto firstJournalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+        final JournalEntryDto secondJournalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+
+        //assert
+        assertEquals(firstJournalEntryDto, secondJournalEntryDto);
+        verify(journalEntryRepository, times(1)).findById(journalEntryId);
+    }
+
+    @Test
+    void givenCachedJournalEntry_whenReviewed_thenCachedEntryIsRefreshed(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(inReviewJournalEntry));
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
+        journalEntryService.getJournalEntryById(journalEntryId);
+
+        //act
+        journalEntryService.reviewJournalEntry(journalEntryId);
+        final JournalEntryDto cachedJournalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+
+        //assert
+        assertEquals(Status.REVIEWED, cachedJournalEntryDto.status());
+        verify(journalEntryRepository, times(1)).findById(journalEntryId);
+    }
+
+    @Test
+    void givenCachedJournalEntries_whenReviewedInBatch_thenCachedEntriesAreRefreshed(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(inReviewJournalEntry));
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
+        journalEntryService.getJournalEntryById(journalEntryId);
+
+        //act
+        journalEntryService.reviewJournalEntries(List.of(journalEntryId));
+        final JournalEntryDto cachedJournalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+
+        //assert
+        assertEquals(Status.REVIEWED, cachedJournalEntryDto.status());
+        verify(journalEntryRepository, times(1)).findById(journalEntryId);
+    }
+
+    @Test
+    void givenCachedJournalEntry_whenReviewedInUncommittedTransaction_thenCacheKeepsCommittedEntry(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry inReviewJournalEntry = new JournalEntry(journalEntryId, "test scenario", Status.IN_REVIEW, LocalDateTime.now());
+        inReviewJournalEntry.setReviewNotes("test review notes");
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(inReviewJournalEntry));
+        when(journalEntryRepository.reviewAll(eq(List.of(journalEntryId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(transitioned(inReviewJournalEntry, Status.REVIEWED)));
+        journalEntryService.getJournalEntryById(journalEntryId);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //act
+            journalEntryService.reviewJournalEntries(List.of(journalEntryId));
+            final JournalEntryDto uncommittedJournalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            final JournalEntryDto committedJournalEntryDto = journalEntryService.getJournalEntryById(journalEntryId);
+
+            //assert
+            assertEquals(Status.IN_REVIEW, uncommittedJournalEntryDto.status());
+            assertEquals(Status.REVIEWED, committedJournalEntryDto.status());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdating_thenThrowException(){
+        //arrange
+        final Long journalEntryId = 1L;
+        final JournalEntry journalEntry = new JournalEntry(journalEntryId, "test scenario", Status.DRAFT, LocalDateTime.now());
+        journalEntry.setVersion(2L);
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(journalEntry));
+        final JournalEntryDto journalEntryDto =
+                new JournalEntryDto(journalEntryId, "test updated scenario", Status.DRAFT, null, null, null, null, null, null, 1L);
+
+        //assert
+        final JournalEntryVersionMismatchException exception = assertThrows(JournalEntryVersionMismatchException.class,
+
+                //act
+                () -> journalEntryService.updateJournalEntry(journalEntryId, journalEntryDto));
+        assertEquals(ErrorMessages.JOURNAL_ENTRY_VERSION_MISMATCH, exception.getMessage());
+        verify(journalEntryRepository, never()).flush();
+    }
+
+    // the new state the guarded update returns for a row it changed
+    private JournalEntry transitioned(final JournalEntry journalEntry, final Status status) {
+        final JournalEntry transitionedJournalEntry = new JournalEntry(journalEntry.getId(), journalEntry.getScenario(), status, journalEntry.getDraftedDate());
+        transitionedJournalEntry.setReviewedDate(status == Status.REVIEWED ? LocalDateTime.now() : journalEntry.getReviewedDate());
+        transitionedJournalEntry.setApprovedDate(status == Status.APPROVED ? LocalDateTime.now() : journalEntry.getApprovedDate());
+        transitionedJournalEntry.setReviewNotes(journalEntry.getReviewNotes());
+        transitionedJournalEntry.setApproveNotes(journalEntry.getApproveNotes());
+        transitionedJournalEntry.setAssignedAccountant(journalEntry.getAssignedAccountant());
+        transitionedJournalEntry.setVersion(journalEntry.getVersion() != null ? journalEntry.getVersion() + 1 : null);
+        return transitionedJournalEntry;
+    }
+
+    private JournalEntry assigned(final JournalEntry journalEntry, final Accountant accountant) {
+        final JournalEntry assignedJournalEntry = transitioned(journalEntry, Status.IN_REVIEW);
+        assignedJournalEntry.setAssignedAccountant(accountant);
+        return assignedJournalEntry;
+    }
+
 }
@@ -0,0 +1,211 @@
+package com.demo.entrymanager.snapshot;
+
+import com.demo.entrymanager.controller.FilterJournalEntryDto;
+import com.demo.entrymanager.dto.JournalEntryDto;
+import com.demo.entrymanager.model.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalEntrySnapshotReaderTest {
+    private static final int BLOCK_ROWS = 2;
+
+    private static final List<JournalEntryDto> JOURNAL_ENTRIES = List.of(
+            new JournalEntryDto(1L, "approved scenario 1", Status.APPROVED, LocalDateTime.of(2025, 1, 1, 9, 0),
+                    LocalDateTime.of(2025, 1, 3, 10, 0), LocalDateTime.of(2025, 1, 4, 11, 0, 0, 500),
+                    "David Marshall 2", "review notes 1", "approve notes 1", 3L),
+            new JournalEntryDto(2L, "approved scenario 2", Status.APPROVED, LocalDateTime.of(2025, 1, 2, 9, 0),
+                    LocalDateTime.of(2025, 1, 3, 12, 0), LocalDateTime.of(2025, 1, 5, 8, 0),
+                    "David Marshall 2", "review notes 2", "approve notes 2", 4L),
+            new JournalEntryDto(3L, "in review scenario 3", Status.IN_REVIEW, LocalDateTime.of(2025, 3, 1, 9, 0),
+                    null, null, "David Marshall 1", null, null, 1L),
+            new JournalEntryDto(4L, "in review scenario 4", Status.IN_REVIEW, LocalDateTime.of(2025, 3, 2, 9, 0),
+                    null, null, "David Marshall 1", "review notes 4", null, 1L),
+            new JournalEntryDto(5L, "draft scenario 5", Status.DRAFT, LocalDateTime.of(2025, 5, 1, 9, 0),
+                    null, null, null, null, null, 0L),
+            new JournalEntryDto(6L, null, null, null, null, null, null, null, null, null));
+
+    @TempDir
+    Path directory;
+
+    private Path snapshot;
+    // end offset of each block in the file, the blocks are written as soon as they are full
+    private final List<Integer> blockEnds = new ArrayList<>();
+
+    @BeforeEach
+    void writeSnapshot() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JournalEntrySnapshotWriter snapshotWriter = new JournalEntrySnapshotWriter(outputStream, BLOCK_ROWS)) {
+            for (int i = 0; i < JOURNAL_ENTRIES.size(); i++) {
+                snapshotWriter.write(JOURNAL_ENTRIES.get(i));
+                if ((i + 1) % BLOCK_ROWS == 0) {
+                    blockEnds.add(outputStream.size());
+                }
+            }
+        }
+        snapshot = directory.resolve("journal-entries.jes");
+        Files.write(snapshot, outputStream.toByteArray());
+    }
+
+    @Test
+    void givenRowsOverSeveralBlocks_whenReadingWithoutFilters_thenAllRowsAreReturnedInWriteOrder() throws IOException {
+        //act
+        final List<JournalEntryDto> journalEntryDtos;
+        final long rowCount;
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            journalEntryDtos = snapshotReader.find(new FilterJournalEntryDto(null, null, null, null)).toList();
+            rowCount = snapshotReader.getRowCount();
+        }
+
+        //assert
+        assertEquals(3, blockEnds.size());
+        assertEquals(JOURNAL_ENTRIES.size(), rowCount);
+        assertEquals(JOURNAL_ENTRIES, journalEntryDtos);
+    }
+
+    @Test
+    void givenRowWithNullColumns_whenReading_thenNullsAreKept() throws IOException {
+        //act
+        final List<JournalEntryDto> journalEntryDtos;
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            journalEntryDtos = snapshotReader.find(new FilterJournalEntryDto(null, null, null, null)).toList();
+        }
+
+        //assert
+        final JournalEntryDto draft = journalEntryDtos.get(4);
+        assertNull(draft.reviewedDate());
+        assertNull(draft.approvedDate());
+        assertNull(draft.assignedAccountant());
+        final JournalEntryDto empty = journalEntryDtos.get(5);
+        assertEquals(6L, empty.id());
+        assertNull(empty.status());
+        assertNull(empty.draftedDate());
+        assertNull(empty.scenario());
+        assertNull(empty.version());
+    }
+
+    @Test
+    void givenStatusFilter_whenReading_thenBlocksOutsideTheStatusZoneAreSkipped() throws IOException {
+        //arrange (a skipped block is never read, garbage in it goes unnoticed)
+        corruptBlock(0);
+        corruptBlock(1);
+
+        //act
+        final List<JournalEntryDto> journalEntryDtos;
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            journalEntryDtos = snapshotReader.find(new FilterJournalEntryDto(List.of(Status.DRAFT), null, null, null)).toList();
+        }
+
+        //assert
+        assertEquals(List.of(JOURNAL_ENTRIES.get(4)), journalEntryDtos);
+    }
+
+    @Test
+    void givenAccountantFilter_whenReading_thenBlocksOutsideTheAccountantZoneAreSkipped() throws IOException {
+        //arrange
+        corruptBlock(0);
+        corruptBlock(2);
+
+        //act
+        final List<JournalEntryDto> journalEntryDtos;
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            journalEntryDtos = snapshotReader.find(new FilterJournalEntryDto(null, null, null, "David Marshall 1")).toList();
+        }
+
+        //assert
+        assertEquals(JOURNAL_ENTRIES.subList(2, 4), journalEntryDtos);
+    }
+
+    @Test
+    void givenDraftedDateRange_whenReading_thenBlocksOutsideTheDateZoneAreSkipped() throws IOException {
+        //arrange
+        corruptBlock(0);
+        corruptBlock(2);
+
+        //act
+        final List<JournalEntryDto> journalEntryDtos;
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            journalEntryDtos = snapshotReader.find(new FilterJournalEntryDto(null,
+                    LocalDateTime.of(2025, 2, 15, 0, 0), LocalDateTime.of(2025, 3, 1, 12, 0), null)).toList();
+        }
+
+        //assert
+        assertEquals(List.of(JOURNAL_ENTRIES.get(2)), journalEntryDtos);
+    }
+
+    @Test
+    void givenDateBoundsOutsideTheEncodableRange_whenReading_thenTheyMatchLikeTheDatabaseComparison() throws IOException {
+        //act
+        final List<JournalEntryDto> allDrafted;
+        final List<JournalEntryDto> draftedBeforeYearTwo;
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            allDrafted = snapshotReader.find(new FilterJournalEntryDto(null,
+                    LocalDateTime.of(1, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 23, 59), null)).toList();
+            draftedBeforeYearTwo = snapshotReader.find(new FilterJournalEntryDto(null,
+                    null, LocalDateTime.of(1, 12, 31, 0, 0), null)).toList();
+        }
+
+        //assert
+        assertEquals(JOURNAL_ENTRIES.subList(0, 5), allDrafted);
+        assertEquals(List.of(), draftedBeforeYearTwo);
+    }
+
+    @Test
+    void givenCorruptBlock_whenItsZoneMatches_thenReadingFails() throws IOException {
+        //arrange (the zone map tests above would pass vacuously if a corrupt block could still be read)
+        corruptBlock(1);
+
+        //act
+        try (JournalEntrySnapshotReader snapshotReader = JournalEntrySnapshotReader.open(snapshot)) {
+            //assert
+            assertThrows(RuntimeException.class,
+                    () -> snapshotReader.find(new FilterJournalEntryDto(List.of(Status.IN_REVIEW), null, null, null)).toList());
+        }
+    }
+
+    @Test
+    void givenTruncatedSnapshot_whenOpening_thenItIsRejected() throws IOException {
+        //arrange
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 1));
+
+        //act
+        final IOException exception = assertThrows(IOException.class, () -> JournalEntrySnapshotReader.open(snapshot));
+
+        //assert
+        assertEquals("Incomplete journal entry snapshot", exception.getMessage());
+    }
+
+    @Test
+    void givenCorruptTrailer_whenOpening_thenItIsRejected() throws IOException {
+        //arrange
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        //act
+        final IOException exception = assertThrows(IOException.class, () -> JournalEntrySnapshotReader.open(snapshot));
+
+        //assert
+        assertEquals("Incomplete journal entry snapshot", exception.getMessage());
+    }
+
+    // 0xFF never ends a varint, reading any column of the block runs past its end
+    private void corruptBlock(final int block) throws IOException {
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        final int start = block == 0 ? Integer.BYTES + Short.BYTES : blockEnds.get(block - 1);
+        Arrays.fill(bytes, start, blockEnds.get(block), (byte) 0xFF);
+        Files.write(snapshot, bytes);
+    }
+}